@@ -12,33 +12,240 @@
 package de.thjom.java.systemd;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.freedesktop.DBus.Properties.PropertiesChanged;
 import org.freedesktop.dbus.DBusSigHandler;
 import org.freedesktop.dbus.DBusSignal;
+import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.exceptions.DBusException;
 
 abstract class AbstractAdapter {
 
+    public static final long DEFAULT_SIGNAL_OVERFLOW_TIMEOUT = 1000L;
+
+    private static final int SIGNAL_QUEUE_CAPACITY = 128;
+
     protected final List<UnitStateListener> unitStateListeners = new ArrayList<>();
 
     private final List<ForwardingHandler<? extends DBusSignal>> forwarders = new ArrayList<>();
 
+    private final Map<UnitStateBatchListener, ForwardingHandler<PropertiesChanged>> batchListeners = new HashMap<>();
+
     private ForwardingHandler<PropertiesChanged> defaultHandler;
+    private volatile StateCoalescer stateCoalescer;
+
+    private volatile Executor signalExecutor;
+    private volatile long signalReorderDelay = SignalSequencer.DEFAULT_TRANSFER_DELAY;
+    private volatile SignalQueueStrategy signalQueueStrategy = SignalQueueStrategy.BLOCKING;
+    private volatile SignalOverflowPolicy signalOverflowPolicy = SignalOverflowPolicy.BLOCK;
+    private volatile long signalOverflowTimeout = DEFAULT_SIGNAL_OVERFLOW_TIMEOUT;
+    private volatile long unitStateCoalescingWindow = 0L;
 
     protected AbstractAdapter() {
         super();
     }
 
+    public Executor getSignalExecutor() {
+        return signalExecutor;
+    }
+
+    /**
+     * Sets the executor which dispatches signals to consumers and listeners
+     * added afterwards. By default (<code>null</code>) every consumer is served
+     * by an own thread. With an executor (e.g. a fixed thread pool, see
+     * {@link Systemd#newSignalExecutor(int)}) the number of threads is bounded
+     * regardless of the number of consumers, while signals of each consumer are
+     * still handled in sequence.<p>
+     *
+     * Adapters created by a {@link Manager} and monitors inherit its executor.
+     *
+     * @param signalExecutor The executor or <code>null</code> for dedicated threads.
+     */
+    public void setSignalExecutor(final Executor signalExecutor) {
+        this.signalExecutor = signalExecutor;
+    }
+
+    public long getSignalReorderDelay() {
+        return signalReorderDelay;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) signals are held back in order
+     * to restore their sequence before they are passed to consumers and
+     * listeners added afterwards. The actual delay adapts to the observed
+     * disorder and is zero while signals arrive in sequence.<p>
+     *
+     * Adapters created by a {@link Manager} and monitors inherit its setting.
+     *
+     * @param signalReorderDelay The maximum delay (0 disables reordering delays).
+     */
+    public void setSignalReorderDelay(final long signalReorderDelay) {
+        if (signalReorderDelay < 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.signalReorderDelay = signalReorderDelay;
+    }
+
+    public SignalQueueStrategy getSignalQueueStrategy() {
+        return signalQueueStrategy;
+    }
+
+    /**
+     * Sets the strategy by which signals are handed over to consumers and
+     * listeners added afterwards. The default strategy
+     * {@link SignalQueueStrategy#BLOCKING} keeps the lock based queueing of
+     * former versions, {@link SignalQueueStrategy#PARK} and
+     * {@link SignalQueueStrategy#SPIN_THEN_PARK} select the lock-free ring
+     * buffer.<p>
+     *
+     * Adapters created by a {@link Manager} and monitors inherit its setting.
+     *
+     * @param signalQueueStrategy The strategy.
+     */
+    public void setSignalQueueStrategy(final SignalQueueStrategy signalQueueStrategy) {
+        this.signalQueueStrategy = Objects.requireNonNull(signalQueueStrategy);
+    }
+
+    public SignalOverflowPolicy getSignalOverflowPolicy() {
+        return signalOverflowPolicy;
+    }
+
+    /**
+     * Sets the policy which applies to consumers and listeners added
+     * afterwards if their queue is full. The default policy
+     * {@link SignalOverflowPolicy#BLOCK} stalls the delivery of signals on the
+     * whole connection while a consumer falls behind, all other policies give
+     * up signals instead (see {@link #getDroppedSignals()} and
+     * {@link #getCoalescedSignals()}).<p>
+     *
+     * Adapters created by a {@link Manager} and monitors inherit its setting.
+     *
+     * @param signalOverflowPolicy The policy.
+     */
+    public void setSignalOverflowPolicy(final SignalOverflowPolicy signalOverflowPolicy) {
+        this.signalOverflowPolicy = Objects.requireNonNull(signalOverflowPolicy);
+    }
+
+    public long getSignalOverflowTimeout() {
+        return signalOverflowTimeout;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a signal waits for a full queue
+     * if the policy {@link SignalOverflowPolicy#BLOCK_WITH_TIMEOUT} applies.<p>
+     *
+     * @param signalOverflowTimeout The timeout.
+     */
+    public void setSignalOverflowTimeout(final long signalOverflowTimeout) {
+        if (signalOverflowTimeout < 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.signalOverflowTimeout = signalOverflowTimeout;
+    }
+
+    public long getUnitStateCoalescingWindow() {
+        return unitStateCoalescingWindow;
+    }
+
+    /**
+     * Sets the time window (in milliseconds) in which the property changes of
+     * a unit are merged before they are passed to unit state listeners added
+     * afterwards (if none is registered yet). Listeners are then notified once
+     * per unit and window with the merged changes, which considerably reduces
+     * the number of notifications during unit restarts. Merged changes are
+     * delivered by the signal executor (see {@link #setSignalExecutor(Executor)})
+     * or a shared pool of daemon threads. Coalescing is disabled by default (0).<p>
+     *
+     * Adapters created by a {@link Manager} and monitors inherit its setting.
+     *
+     * @param unitStateCoalescingWindow The coalescing window (0 disables coalescing).
+     */
+    public void setUnitStateCoalescingWindow(final long unitStateCoalescingWindow) {
+        if (unitStateCoalescingWindow < 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.unitStateCoalescingWindow = unitStateCoalescingWindow;
+    }
+
+    /**
+     * Returns the number of signals dropped by the consumers and listeners of
+     * this adapter due to full queues.<p>
+     *
+     * @return The number of dropped signals.
+     */
+    public long getDroppedSignals() {
+        long dropped = 0L;
+
+        for (ForwardingHandler<? extends DBusSignal> forwarder : getForwarders()) {
+            dropped += forwarder.getDroppedSignals();
+        }
+
+        return dropped;
+    }
+
+    /**
+     * Returns the number of signals coalesced by the consumers and listeners
+     * of this adapter due to full queues.<p>
+     *
+     * @return The number of coalesced signals.
+     */
+    public long getCoalescedSignals() {
+        long coalesced = 0L;
+
+        for (ForwardingHandler<? extends DBusSignal> forwarder : getForwarders()) {
+            coalesced += forwarder.getCoalescedSignals();
+        }
+
+        return coalesced;
+    }
+
+    /**
+     * Applies the signal handling settings of the given adapter to this one.
+     */
+    protected void inheritSignalSettings(final AbstractAdapter adapter) {
+        setSignalExecutor(adapter.getSignalExecutor());
+        setSignalReorderDelay(adapter.getSignalReorderDelay());
+        setSignalQueueStrategy(adapter.getSignalQueueStrategy());
+        setSignalOverflowPolicy(adapter.getSignalOverflowPolicy());
+        setSignalOverflowTimeout(adapter.getSignalOverflowTimeout());
+        setUnitStateCoalescingWindow(adapter.getUnitStateCoalescingWindow());
+    }
+
+    private List<ForwardingHandler<? extends DBusSignal>> getForwarders() {
+        List<ForwardingHandler<? extends DBusSignal>> handlers;
+
+        synchronized (forwarders) {
+            handlers = new ArrayList<>(forwarders);
+        }
+
+        synchronized (unitStateListeners) {
+            if (defaultHandler != null) {
+                handlers.add(defaultHandler);
+            }
+
+            handlers.addAll(batchListeners.values());
+        }
+
+        return handlers;
+    }
+
     public abstract <T extends DBusSignal> void addHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException;
 
     public abstract <T extends DBusSignal> void removeHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException;
 
     public <T extends DBusSignal> void addConsumer(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException {
-        SignalConsumer<T> consumer = new SignalConsumer<>(handler::handle);
-        ForwardingHandler<T> forwarder = new ForwardingHandler<>(consumer);
+        SignalConsumer<T> consumer = new SignalConsumer<>(newSignalQueue(), handler);
+        ForwardingHandler<T> forwarder = new ForwardingHandler<>(consumer, signalExecutor);
 
         synchronized (forwarders) {
             forwarders.add(forwarder);
@@ -54,7 +261,7 @@ abstract class AbstractAdapter {
 
         synchronized (forwarders) {
             for (ForwardingHandler<? extends DBusSignal> forwarder : forwarders) {
-                if (Objects.equals(forwarder.getConsumer(), handler)) {
+                if (forwarder.getConsumer().getHandler() == handler) {
                     match = forwarder;
 
                     break;
@@ -76,13 +283,34 @@ abstract class AbstractAdapter {
         }
     }
 
+    /**
+     * Returns a publisher of the signals of the given type, e.g.
+     * <code>UnitNew</code> of a {@link Manager} or
+     * <code>PropertiesChanged</code> of a {@link Unit}. Signals are delivered
+     * as requested by each subscriber. Signals of a subscriber which falls
+     * behind are buffered, so the signal delivery of the connection is never
+     * blocked. Beyond the buffer capacity, property changes of the same object
+     * path and interface are merged into a single signal (intermediate values
+     * are skipped, but no changed or invalidated property is lost) and other
+     * signals are dropped, oldest first. If {@link SignalOverflowPolicy#DROP_NEWEST}
+     * or {@link SignalOverflowPolicy#DROP_OLDEST} is set, all signals are
+     * dropped accordingly.<p>
+     *
+     * @param type The signal type.
+     * @return The publisher.
+     */
+    public <T extends DBusSignal> SignalFlow.Publisher<T> getPublisher(final Class<T> type) {
+        return new SignalPublisher<>(this, type);
+    }
+
     public void addListener(final UnitStateListener listener) throws DBusException {
         synchronized (unitStateListeners) {
-            if (defaultHandler == null) {
-                defaultHandler = new ForwardingHandler<>(createStateConsumer());
-                defaultHandler.startConsumer();
+            if (unitStateListeners.isEmpty()) {
+                if (unitStateCoalescingWindow > 0L) {
+                    stateCoalescer = new StateCoalescer(unitStateCoalescingWindow, TimeUnit.MILLISECONDS, this::notifyStateListeners, signalExecutor);
+                }
 
-                addHandler(PropertiesChanged.class, defaultHandler);
+                startStateHandling();
             }
 
             unitStateListeners.add(listener);
@@ -91,19 +319,174 @@ abstract class AbstractAdapter {
 
     public void removeListener(final UnitStateListener listener) throws DBusException {
         synchronized (unitStateListeners) {
-            unitStateListeners.remove(listener);
+            if (unitStateListeners.remove(listener) && unitStateListeners.isEmpty()) {
+                stopStateHandling();
+
+                if (stateCoalescer != null) {
+                    stateCoalescer.clear();
+                    stateCoalescer = null;
+                }
+            }
+        }
+    }
 
-            if (unitStateListeners.isEmpty() && defaultHandler != null) {
-                removeHandler(PropertiesChanged.class, defaultHandler);
+    /**
+     * Starts the delivery of <code>PropertiesChanged</code> signals to
+     * {@link #handleStateSignal(PropertiesChanged)} once the first unit state
+     * listener is added. By default an own consumer is registered.
+     */
+    protected void startStateHandling() throws DBusException {
+        defaultHandler = new ForwardingHandler<>(createStateConsumer(), signalExecutor);
+        defaultHandler.startConsumer();
+
+        addHandler(PropertiesChanged.class, defaultHandler);
+    }
+
+    /**
+     * Stops the delivery of <code>PropertiesChanged</code> signals once the
+     * last unit state listener was removed.
+     */
+    protected void stopStateHandling() throws DBusException {
+        if (defaultHandler != null) {
+            removeHandler(PropertiesChanged.class, defaultHandler);
+
+            defaultHandler.stopConsumer();
+            defaultHandler = null;
+        }
+    }
+
+    /**
+     * Adds a listener which receives unit state changes in batches. Signals
+     * are taken from an own queue of the listener, a batch is completed once
+     * it reaches the maximum size or the maximum latency after its first
+     * signal elapsed, whether signals are consumed by an own thread or by the
+     * signal executor.<p>
+     *
+     * @param listener The listener.
+     * @param maxBatchSize The maximum number of state changes per batch.
+     * @param maxLatency The maximum time (in milliseconds) a batch is held back for more signals.
+     * @throws DBusException If the signal handler cannot be registered.
+     */
+    public void addBatchListener(final UnitStateBatchListener listener, final int maxBatchSize, final long maxLatency) throws DBusException {
+        Objects.requireNonNull(listener);
+
+        synchronized (unitStateListeners) {
+            if (!batchListeners.containsKey(listener)) {
+                SignalConsumer<PropertiesChanged> consumer = new SignalConsumer<>(newSignalQueue(), s -> notifyBatchListener(listener, s), maxBatchSize, maxLatency, TimeUnit.MILLISECONDS);
+                ForwardingHandler<PropertiesChanged> forwarder = new ForwardingHandler<>(consumer, signalExecutor);
+                forwarder.startConsumer();
 
-                defaultHandler.stopConsumer();
-                defaultHandler = null;
+                addHandler(PropertiesChanged.class, forwarder);
+
+                batchListeners.put(listener, forwarder);
+            }
+        }
+    }
+
+    public void removeBatchListener(final UnitStateBatchListener listener) throws DBusException {
+        synchronized (unitStateListeners) {
+            ForwardingHandler<PropertiesChanged> forwarder = batchListeners.remove(listener);
+
+            if (forwarder != null) {
+                removeHandler(PropertiesChanged.class, forwarder);
+
+                forwarder.stopConsumer();
             }
         }
     }
 
     protected SignalConsumer<PropertiesChanged> createStateConsumer() {
-        return new SignalConsumer<>(s -> { /* Default behavior (do nothing) */ });
+        return new SignalConsumer<>(newSignalQueue(), this::handleStateSignal);
+    }
+
+    protected void handleStateSignal(final PropertiesChanged signal) {
+        StateCoalescer coalescer = stateCoalescer;
+
+        if (coalescer != null) {
+            coalescer.submit(signal);
+        }
+        else {
+            notifyStateListeners(signal.getPath(), signal.changedProperties);
+        }
+    }
+
+    /**
+     * Notifies the unit state listeners about property changes of the given
+     * object path, which may have been merged from several signals.
+     */
+    protected void notifyStateListeners(final String objectPath, final Map<String, Variant<?>> changedProperties) {
+        if (isStateChange(changedProperties)) {
+            Unit unit = resolveStateUnit(objectPath);
+
+            if (unit != null) {
+                synchronized (unitStateListeners) {
+                    unitStateListeners.forEach(l -> l.stateChanged(unit, changedProperties));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the unit whose state changes on the given object path are
+     * announced to listeners of this adapter.<p>
+     *
+     * @param objectPath The object path of a received signal.
+     * @return The unit or <code>null</code> if the changes are not announced.
+     */
+    protected Unit resolveStateUnit(final String objectPath) {
+        // Default behavior (no units)
+        return null;
+    }
+
+    private void notifyBatchListener(final UnitStateBatchListener listener, final List<PropertiesChanged> signals) {
+        List<UnitStateEvent> events = new ArrayList<>(signals.size());
+
+        for (PropertiesChanged signal : signals) {
+            if (isStateChange(signal.changedProperties)) {
+                Unit unit = resolveStateUnit(signal.getPath());
+
+                if (unit != null) {
+                    events.add(new UnitStateEvent(unit, signal.changedProperties));
+                }
+            }
+        }
+
+        if (!events.isEmpty()) {
+            listener.stateChanged(Collections.unmodifiableList(events));
+        }
+    }
+
+    private static boolean isStateChange(final Map<String, Variant<?>> properties) {
+        return properties.containsKey(Unit.Property.ACTIVE_STATE) || properties.containsKey(Unit.Property.LOAD_STATE) || properties.containsKey(Unit.Property.SUB_STATE);
+    }
+
+    /**
+     * Creates a queue for a publisher subscription, which never blocks. Unless
+     * a dropping policy is set, property changes are merged on overflow (see
+     * {@link SignalOverflowPolicy#COALESCE_BY_OBJECT_PATH}).
+     */
+    <T extends DBusSignal> SignalQueue<T> newPublisherQueue(final Class<T> type) {
+        SignalQueue<T> queue = signalQueueStrategy.newQueue(SIGNAL_QUEUE_CAPACITY);
+        queue.setTransferDelay(signalReorderDelay);
+
+        SignalOverflowPolicy policy = signalOverflowPolicy;
+
+        if (policy != SignalOverflowPolicy.DROP_NEWEST && policy != SignalOverflowPolicy.DROP_OLDEST) {
+            policy = type == PropertiesChanged.class ? SignalOverflowPolicy.COALESCE_BY_OBJECT_PATH : SignalOverflowPolicy.DROP_OLDEST;
+        }
+
+        return new OverflowSignalQueue<>(queue, policy, 0L, TimeUnit.MILLISECONDS);
+    }
+
+    protected <T extends DBusSignal> SignalQueue<T> newSignalQueue() {
+        SignalQueue<T> queue = signalQueueStrategy.newQueue(SIGNAL_QUEUE_CAPACITY);
+        queue.setTransferDelay(signalReorderDelay);
+
+        if (signalOverflowPolicy != SignalOverflowPolicy.BLOCK) {
+            queue = new OverflowSignalQueue<>(queue, signalOverflowPolicy, signalOverflowTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        return queue;
     }
 
 }
@@ -0,0 +1,180 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.freedesktop.dbus.DBusConnection;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.freedesktop.dbus.exceptions.NotConnected;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.thjom.java.systemd.Systemd.InstanceType;
+
+/**
+ * Fixed-size pool of additional bus connections which method calls are striped
+ * across in round-robin order. dbus-java shares connections by address, hence
+ * every pooled connection is opened with a distinct (otherwise ignored) address
+ * parameter.
+ */
+final class ConnectionPool {
+
+    static final String STRIPE_PARAMETER = "stripe";
+
+    /**
+     * Opens the connection to the given bus address.
+     */
+    @FunctionalInterface
+    interface Connector {
+
+        DBusConnection connect(final String address) throws DBusException;
+
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final String address;
+    private final Connector connector;
+    private final AtomicReferenceArray<DBusConnection> connections;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private ConnectionPool(final String address, final int size, final Connector connector) {
+        this.address = address;
+        this.connector = connector;
+        this.connections = new AtomicReferenceArray<>(size);
+    }
+
+    static ConnectionPool open(final InstanceType instanceType, final int size) throws DBusException {
+        return open(resolveAddress(instanceType), size, DBusConnection::getConnection);
+    }
+
+    static ConnectionPool open(final String address, final int size, final Connector connector) throws DBusException {
+        if (size <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        ConnectionPool pool = new ConnectionPool(address, size, connector);
+
+        try {
+            pool.restore();
+        }
+        catch (final DBusException e) {
+            pool.close();
+
+            throw e;
+        }
+
+        return pool;
+    }
+
+    static String resolveAddress(final InstanceType instanceType) throws DBusException {
+        String address;
+
+        switch (instanceType) {
+            case SYSTEM:
+                address = System.getenv("DBUS_SYSTEM_BUS_ADDRESS");
+
+                if (address == null || address.isEmpty()) {
+                    address = DBusConnection.DEFAULT_SYSTEM_BUS_ADDRESS;
+                }
+
+                break;
+            case USER:
+                address = System.getenv("DBUS_SESSION_BUS_ADDRESS");
+
+                if (address == null || address.isEmpty()) {
+                    throw new DBusException("Unable to determine session bus address (DBUS_SESSION_BUS_ADDRESS not set)");
+                }
+
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported instance type '%s'", instanceType));
+        }
+
+        return address;
+    }
+
+    static String stripeAddress(final String address, final int index) {
+        return String.format("%s,%s=%d", address, STRIPE_PARAMETER, index);
+    }
+
+    int size() {
+        return connections.length();
+    }
+
+    int nextIndex() {
+        return Math.floorMod(counter.getAndIncrement(), connections.length());
+    }
+
+    DBusConnection get(final int index) {
+        return connections.get(index);
+    }
+
+    boolean isConnected() {
+        for (int i = 0; i < connections.length(); i++) {
+            if (!isConnected(connections.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isConnected(final DBusConnection connection) {
+        return !(connection == null || connection.getError() instanceof NotConnected);
+    }
+
+    /**
+     * Opens all connections of this pool which are missing or were lost.
+     */
+    synchronized void restore() throws DBusException {
+        for (int i = 0; i < connections.length(); i++) {
+            DBusConnection connection = connections.get(i);
+
+            if (!isConnected(connection)) {
+                if (connection != null) {
+                    release(connection);
+                }
+
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Opening pooled connection %d of %d", i + 1, connections.length()));
+                }
+
+                connections.set(i, connector.connect(stripeAddress(address, i)));
+            }
+        }
+    }
+
+    synchronized void close() {
+        for (int i = 0; i < connections.length(); i++) {
+            DBusConnection connection = connections.getAndSet(i, null);
+
+            if (connection != null) {
+                release(connection);
+            }
+        }
+    }
+
+    private static void release(final DBusConnection connection) {
+        try {
+            connection.disconnect();
+        }
+        catch (final RuntimeException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to release pooled connection", e);
+            }
+        }
+    }
+
+}
@@ -12,6 +12,11 @@
 package de.thjom.java.systemd;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.freedesktop.dbus.DBusSigHandler;
 import org.freedesktop.dbus.DBusSignal;
@@ -25,23 +30,41 @@ class ForwardingHandler<T extends DBusSignal> implements DBusSigHandler<T> {
     private SignalConsumer<T> consumer;
     private Thread consumerThread;
 
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong arrivals = new AtomicLong();
+
     ForwardingHandler(final SignalConsumer<T> consumer) {
+        this(consumer, null);
+    }
+
+    /**
+     * Creates a forwarding handler whose consumer is served by the given
+     * executor instead of a dedicated thread. At most one dispatch task per
+     * consumer is pending at any time, so signals are still handled one after
+     * another and in sequence. Signals held back for reordering and incomplete
+     * batches are dispatched once they are due.
+     */
+    ForwardingHandler(final SignalConsumer<T> consumer, final Executor executor) {
         this.consumer = Objects.requireNonNull(consumer);
+        this.executor = executor;
     }
 
     public void startConsumer() {
-        if (consumer != null) {
+        if (consumer != null && executor == null) {
             log.info("Starting signal consumer thread");
 
-            consumerThread = new Thread(consumer);
-            consumerThread.setName(SignalConsumer.class.getSimpleName());
-            consumerThread.setDaemon(true);
+            consumerThread = SignalThreads.newThread(consumer, SignalConsumer.class.getSimpleName());
             consumerThread.start();
         }
     }
 
     public void stopConsumer() {
-        if (consumer != null && consumerThread != null) {
+        if (consumer != null && executor != null) {
+            consumer.setRunning(false);
+            consumer.drain();
+        }
+        else if (consumer != null && consumerThread != null) {
             log.info("Stopping signal consumer thread");
 
             consumer.setRunning(false);
@@ -57,9 +80,9 @@ class ForwardingHandler<T extends DBusSignal> implements DBusSigHandler<T> {
     }
 
     @Override
-    public synchronized void handle(final T signal) {
+    public void handle(final T signal) {
         if (consumer != null) {
-            SignalSequencer<T> sequencer = consumer.getSequencer();
+            SignalQueue<T> sequencer = consumer.getSequencer();
 
             if (sequencer != null) {
                 if (log.isDebugEnabled()) {
@@ -72,12 +95,82 @@ class ForwardingHandler<T extends DBusSignal> implements DBusSigHandler<T> {
                 catch (final InterruptedException e) {
                     log.debug(e.getMessage());
                 }
+
+                if (executor != null) {
+                    arrivals.incrementAndGet();
+
+                    schedule();
+                }
             }
         }
     }
 
+    private void schedule() {
+        if (consumer.isRunning() && scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::dispatch);
+            }
+            catch (final RejectedExecutionException e) {
+                log.warn("Signal executor rejected dispatch, handling signals in caller thread");
+
+                dispatch();
+            }
+        }
+    }
+
+    private void dispatch() {
+        long seen = arrivals.get();
+        long delay = -1L;
+
+        try {
+            delay = consumer.dispatch();
+        }
+        finally {
+            scheduled.set(false);
+        }
+
+        if (arrivals.get() != seen) {
+            schedule();
+        }
+        else if (delay >= 0L) {
+            try {
+                SharedScheduler.get().schedule(this::schedule, delay, TimeUnit.NANOSECONDS);
+            }
+            catch (final RejectedExecutionException e) {
+                log.warn(String.format("Unable to schedule signal dispatch: %s", e.getMessage()));
+            }
+        }
+    }
+
+    public final Executor getExecutor() {
+        return executor;
+    }
+
     public final SignalConsumer<T> getConsumer() {
         return consumer;
     }
 
+    /**
+     * Returns the number of signals dropped due to a full queue.<p>
+     *
+     * @return The number of dropped signals.
+     */
+    public long getDroppedSignals() {
+        SignalQueue<T> sequencer = consumer.getSequencer();
+
+        return sequencer instanceof OverflowSignalQueue ? ((OverflowSignalQueue<T>) sequencer).getDropped() : 0L;
+    }
+
+    /**
+     * Returns the number of signals replaced by a subsequent signal of the same
+     * object path due to a full queue.<p>
+     *
+     * @return The number of coalesced signals.
+     */
+    public long getCoalescedSignals() {
+        SignalQueue<T> sequencer = consumer.getSequencer();
+
+        return sequencer instanceof OverflowSignalQueue ? ((OverflowSignalQueue<T>) sequencer).getCoalesced() : 0L;
+    }
+
 }
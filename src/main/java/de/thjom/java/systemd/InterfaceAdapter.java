@@ -15,12 +15,19 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.CallbackHandler;
 import org.freedesktop.dbus.DBusConnection;
 import org.freedesktop.dbus.DBusInterface;
 import org.freedesktop.dbus.DBusSigHandler;
 import org.freedesktop.dbus.DBusSignal;
 import org.freedesktop.dbus.exceptions.DBusException;
+import org.freedesktop.dbus.exceptions.DBusExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,33 +37,92 @@ public abstract class InterfaceAdapter extends AbstractAdapter implements DBusIn
 
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
-    protected final DBusConnection dbus;
+    protected volatile DBusConnection dbus;
 
     protected Properties properties;
 
-    private final DBusInterface iface;
+    private volatile DBusInterface iface;
+    private volatile StripedInterface striped;
+
+    private final Class<? extends DBusInterface> interfaceType;
+    private final List<Registration<? extends DBusSignal>> registrations = new CopyOnWriteArrayList<>();
 
     protected InterfaceAdapter(final DBusConnection dbus, final DBusInterface iface) {
         super();
 
         this.dbus = Objects.requireNonNull(dbus);
         this.iface = Objects.requireNonNull(iface);
+        this.interfaceType = resolveInterfaceType(iface);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends DBusInterface> resolveInterfaceType(final DBusInterface iface) {
+        for (Class<?> type : iface.getClass().getInterfaces()) {
+            if (type != DBusInterface.class && DBusInterface.class.isAssignableFrom(type)) {
+                return (Class<? extends DBusInterface>) type;
+            }
+        }
+
+        return DBusInterface.class;
     }
 
     @Override
     public String getObjectPath() {
-        return getInterface().getObjectPath();
+        return iface.getObjectPath();
     }
 
     @Override
     public boolean isRemote() {
-        return getInterface().isRemote();
+        return iface.isRemote();
     }
 
+    /**
+     * Returns the remote interface method calls are made on. If the adapter is
+     * striped across a connection pool, the proxy on the next pooled connection
+     * is returned.<p>
+     *
+     * @return The remote interface.
+     */
     public DBusInterface getInterface() {
+        StripedInterface current = striped;
+
+        if (current != null) {
+            try {
+                return current.next().remote;
+            }
+            catch (final DBusException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Falling back to primary connection: %s", e.getMessage()));
+                }
+            }
+        }
+
+        return iface;
+    }
+
+    /**
+     * Returns the remote interface on the primary connection, i.e. the
+     * connection signal handlers are registered on.<p>
+     *
+     * @return The remote interface on the primary connection.
+     */
+    protected DBusInterface getPrimaryInterface() {
         return iface;
     }
 
+    /**
+     * Stripes method calls of this adapter (and its property adapters) across
+     * the connections of the given pool, or stops striping if no pool is given.
+     * Signal handlers always remain on the primary connection.
+     */
+    void stripe(final ConnectionPool pool) {
+        striped = pool != null ? new StripedInterface(pool, getObjectPath(), interfaceType) : null;
+
+        if (properties != null && properties != this) {
+            properties.stripe(pool);
+        }
+    }
+
     /**
      * Returns the {@link PropertyInterface} adapter of this interface adapter.<p>
      *
@@ -66,15 +132,166 @@ public abstract class InterfaceAdapter extends AbstractAdapter implements DBusIn
         return properties;
     }
 
+    /**
+     * Invokes a method of the adapted remote interface without blocking the
+     * calling thread. The returned future is completed by a dbus-java worker
+     * thread once the reply (or error) has been received, so dependent stages
+     * doing expensive work should be attached with an own executor.<p>
+     *
+     * @param methodName The Java name of the interface method to call.
+     * @param args The method arguments (must match the declared parameter types).
+     * @return A future of the converted method reply.
+     */
+    protected <T> CompletableFuture<T> callAsync(final String methodName, final Object... args) {
+        StripedInterface current = striped;
+
+        if (current != null) {
+            try {
+                StripedInterface.Stripe stripe = current.next();
+
+                return callAsync(stripe.connection, stripe.remote, methodName, args);
+            }
+            catch (final DBusException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Falling back to primary connection: %s", e.getMessage()));
+                }
+            }
+        }
+
+        return callAsync(dbus, iface, methodName, args);
+    }
+
+    static <T> CompletableFuture<T> callAsync(final DBusConnection dbus, final DBusInterface remote, final String methodName, final Object... args) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        // dbus-java keeps the callback until a reply is received, so a future
+        // which is completed otherwise (e.g. cancelled) is detached from it
+        AtomicReference<CompletableFuture<T>> target = new AtomicReference<>(future);
+        future.whenComplete((r, e) -> target.set(null));
+
+        try {
+            dbus.callWithCallback(remote, methodName, new CallbackHandler<T>() {
+
+                @Override
+                public void handle(final T reply) {
+                    CompletableFuture<T> pending = target.get();
+
+                    if (pending != null) {
+                        pending.complete(reply);
+                    }
+                }
+
+                @Override
+                public void handleError(final DBusExecutionException e) {
+                    CompletableFuture<T> pending = target.get();
+
+                    if (pending != null) {
+                        pending.completeExceptionally(e);
+                    }
+                }
+
+            }, args);
+        }
+        catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
     @Override
     public <T extends DBusSignal> void addHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException {
-        dbus.addSigHandler(type, handler);
+        registerHandler(type, handler, false);
     }
 
     @Override
     public <T extends DBusSignal> void removeHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException {
         if (handler != null) {
-            dbus.removeSigHandler(type, handler);
+            unregisterHandler(type, handler, false);
+        }
+    }
+
+    /**
+     * Adds a signal handler to the bus connection and records it, so that it
+     * can be registered again after the adapter was bound to a new connection
+     * (see {@link #rebind(DBusConnection)}).<p>
+     *
+     * Handlers of signals emitted by systemd (i.e. declared by its interfaces
+     * or <code>PropertiesChanged</code>) which are not scoped to the adapted
+     * object path are restricted to the current owner of the systemd bus name,
+     * so that the bus does not forward such signals of other services. The
+     * owner is tracked per connection and such handlers are moved to the new
+     * owner once systemd was re-executed.
+     *
+     * @param type The signal type.
+     * @param handler The signal handler.
+     * @param scoped Whether the handler only receives signals of the adapted object path.
+     * @throws DBusException If the handler cannot be added.
+     */
+    protected <T extends DBusSignal> void registerHandler(final Class<T> type, final DBusSigHandler<T> handler, final boolean scoped) throws DBusException {
+        Registration<T> registration = new Registration<>(type, handler, scoped);
+        registration.addTo(dbus, iface);
+
+        registrations.add(registration);
+    }
+
+    protected <T extends DBusSignal> void unregisterHandler(final Class<T> type, final DBusSigHandler<T> handler, final boolean scoped) throws DBusException {
+        Registration<? extends DBusSignal> registration = new Registration<>(type, handler, scoped);
+
+        for (Registration<? extends DBusSignal> registered : registrations) {
+            if (registered.equals(registration)) {
+                registration = registered;
+
+                break;
+            }
+        }
+
+        if (registrations.remove(registration)) {
+            registration.remove();
+        }
+        else {
+            registration.removeFrom(dbus, iface);
+        }
+    }
+
+    protected boolean hasRegisteredHandlers() {
+        return !registrations.isEmpty();
+    }
+
+    /**
+     * Binds this adapter to the given connection, e.g. after the previous one
+     * was lost. The remote object is imported again and all recorded signal
+     * handlers are added to the connection.<p>
+     *
+     * Each handler is removed from the connection and with the sender it was
+     * added by before, so that rebinding to the same connection (e.g. because
+     * systemd was re-executed and owns a new unique bus name) or repeating a
+     * partially failed rebind does not register a handler twice.
+     *
+     * @param update The connection to use from now on.
+     * @throws DBusException If the remote object cannot be imported or a handler cannot be added.
+     */
+    void rebind(final DBusConnection update) throws DBusException {
+        DBusInterface remote = update.getRemoteObject(Systemd.SERVICE_NAME, getObjectPath(), interfaceType);
+
+        dbus = update;
+        iface = remote;
+
+        for (Registration<? extends DBusSignal> registration : registrations) {
+            try {
+                registration.remove();
+            }
+            catch (final DBusException | RuntimeException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Unable to remove stale handler registration: %s", e.getMessage()));
+                }
+            }
+
+            registration.addTo(update, remote);
+        }
+
+        if (properties != null && properties != this) {
+            properties.rebind(update);
         }
     }
 
@@ -95,6 +312,144 @@ public abstract class InterfaceAdapter extends AbstractAdapter implements DBusIn
         return Objects.hash(dbus.getUniqueName(), getObjectPath());
     }
 
+    private static final class Registration<T extends DBusSignal> implements BiConsumer<String, String> {
+
+        private final Class<T> type;
+        private final DBusSigHandler<T> handler;
+        private final boolean scoped;
+
+        private DBusConnection connection;
+        private DBusInterface remote;
+        private String source;
+        private ServiceOwner owner;
+
+        Registration(final Class<T> type, final DBusSigHandler<T> handler, final boolean scoped) {
+            this.type = type;
+            this.handler = handler;
+            this.scoped = scoped;
+        }
+
+        synchronized void addTo(final DBusConnection dbus, final DBusInterface remote) throws DBusException {
+            connection = null;
+            owner = null;
+
+            if (scoped) {
+                dbus.addSigHandler(type, remote, handler);
+            }
+            else if (isSystemdSignal(type)) {
+                owner = ServiceOwner.of(dbus);
+                source = owner.get(dbus);
+
+                if (source != null) {
+                    dbus.addSigHandler(type, source, handler);
+                }
+                else {
+                    dbus.addSigHandler(type, handler);
+                }
+
+                owner.addListener(this);
+            }
+            else {
+                source = null;
+
+                dbus.addSigHandler(type, handler);
+            }
+
+            this.connection = dbus;
+            this.remote = remote;
+        }
+
+        /**
+         * Moves the handler to the new owner of the systemd service name.
+         */
+        @Override
+        public synchronized void accept(final String previousOwner, final String newOwner) {
+            if (connection == null || Objects.equals(source, newOwner)) {
+                return;
+            }
+
+            try {
+                if (source != null) {
+                    connection.removeSigHandler(type, source, handler);
+                }
+                else {
+                    connection.removeSigHandler(type, handler);
+                }
+
+                source = null;
+
+                connection.addSigHandler(type, newOwner, handler);
+                source = newOwner;
+            }
+            catch (final DBusException | RuntimeException e) {
+                LoggerFactory.getLogger(InterfaceAdapter.class).error(String.format("Unable to move handler of %s to new owner %s", type.getSimpleName(), newOwner), e);
+
+                if (source == null) {
+                    try {
+                        connection.addSigHandler(type, handler);
+                    }
+                    catch (final DBusException | RuntimeException ex) {
+                        connection = null;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Removes the handler from the connection and with the sender it was
+         * added by.
+         */
+        synchronized void remove() throws DBusException {
+            if (owner != null) {
+                owner.removeListener(this);
+                owner = null;
+            }
+
+            if (connection != null) {
+                DBusConnection bound = connection;
+                connection = null;
+
+                removeFrom(bound, remote);
+            }
+        }
+
+        synchronized void removeFrom(final DBusConnection dbus, final DBusInterface remote) throws DBusException {
+            if (scoped) {
+                dbus.removeSigHandler(type, remote, handler);
+            }
+            else if (source != null) {
+                dbus.removeSigHandler(type, source, handler);
+            }
+            else {
+                dbus.removeSigHandler(type, handler);
+            }
+        }
+
+        private static boolean isSystemdSignal(final Class<? extends DBusSignal> type) {
+            return type == PropertiesChanged.class || type.getName().startsWith(PropertyInterface.class.getPackage().getName() + '.');
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, handler, scoped);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            else if (obj instanceof Registration) {
+                Registration<?> other = (Registration<?>) obj;
+
+                return type == other.type && handler == other.handler && scoped == other.scoped;
+            }
+
+            return false;
+        }
+
+    }
+
     public static class AdapterProperty {
 
         private static final Logger log = LoggerFactory.getLogger(AdapterProperty.class);
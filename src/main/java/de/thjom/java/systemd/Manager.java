@@ -12,16 +12,40 @@
 package de.thjom.java.systemd;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.freedesktop.DBus.Error.UnknownMethod;
 import org.freedesktop.DBus.Introspectable;
+import org.freedesktop.DBus.Properties.PropertiesChanged;
 import org.freedesktop.dbus.DBusConnection;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.exceptions.DBusException;
+import org.freedesktop.dbus.exceptions.DBusExecutionException;
 
 import de.thjom.java.systemd.Unit.Mode;
 import de.thjom.java.systemd.Unit.Who;
 import de.thjom.java.systemd.interfaces.ManagerInterface;
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitRemoved;
+import de.thjom.java.systemd.interfaces.PropertyInterface;
 import de.thjom.java.systemd.types.UnitFileType;
 import de.thjom.java.systemd.types.UnitType;
 
@@ -29,6 +53,8 @@ public class Manager extends InterfaceAdapter {
 
     public static final String SERVICE_NAME = Systemd.SERVICE_NAME + ".Manager";
 
+    public static final long DEFAULT_PROPERTIES_TIMEOUT = 25000L;
+
     public static class Property extends InterfaceAdapter.AdapterProperty {
 
         public static final String ARCHITECTURE = "Architecture";
@@ -136,6 +162,14 @@ public class Manager extends InterfaceAdapter {
     }
 
     private boolean subscribed;
+    private volatile boolean filteredListingUnsupported;
+
+    private volatile UnitCache unitCache;
+    private volatile ConnectionPool connectionPool;
+
+    private final Set<Unit> boundUnits = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<UnitMonitor> boundMonitors = new CopyOnWriteArrayList<>();
+    private final PropertiesDemultiplexer propertiesDemultiplexer = new PropertiesDemultiplexer();
 
     private Manager(final DBusConnection dbus, final ManagerInterface iface) throws DBusException {
         super(dbus, iface);
@@ -196,10 +230,173 @@ public class Manager extends InterfaceAdapter {
         return getInterface().listUnitFiles();
     }
 
+    public CompletableFuture<List<UnitFileType>> listUnitFilesAsync() {
+        return callAsync("listUnitFiles");
+    }
+
     public List<UnitType> listUnits() {
         return getInterface().listUnits();
     }
 
+    public CompletableFuture<List<UnitType>> listUnitsAsync() {
+        return callAsync("listUnits");
+    }
+
+    /**
+     * Lists the units which are in one of the given load, active or sub
+     * states, filtered by systemd. If systemd does not support server-side
+     * filtering (before v230), all units are listed and filtered locally.<p>
+     *
+     * @param states The states (e.g. <code>active</code> or <code>running</code>).
+     * @return The matching units.
+     */
+    public List<UnitType> listUnitsFiltered(final List<String> states) {
+        if (!filteredListingUnsupported) {
+            try {
+                return getInterface().listUnitsFiltered(states);
+            }
+            catch (final UnknownMethod e) {
+                handleUnknownListing(e);
+            }
+        }
+
+        return filterUnits(listUnits(), states, Collections.emptyList());
+    }
+
+    /**
+     * Lists the units which are in one of the given states (if any) and whose
+     * names match one of the given shell-style patterns (if any), filtered by
+     * systemd. Falls back to local filtering like
+     * {@link #listUnitsFiltered(List)}.<p>
+     *
+     * @param states The states or an empty list for any state.
+     * @param patterns The name patterns (e.g. <code>*.service</code>) or an empty list for any name.
+     * @return The matching units.
+     */
+    public List<UnitType> listUnitsByPatterns(final List<String> states, final List<String> patterns) {
+        if (!filteredListingUnsupported) {
+            try {
+                return getInterface().listUnitsByPatterns(states, patterns);
+            }
+            catch (final UnknownMethod e) {
+                handleUnknownListing(e);
+            }
+        }
+
+        return filterUnits(listUnits(), states, patterns);
+    }
+
+    /**
+     * Lists the units of the given names, filtered by systemd. In contrast to
+     * {@link #listUnits()} units which are not loaded are included as well,
+     * unless systemd lacks support and the local fallback applies.<p>
+     *
+     * @param names The full unit names.
+     * @return The matching units.
+     */
+    public List<UnitType> listUnitsByNames(final List<String> names) {
+        if (!filteredListingUnsupported) {
+            try {
+                return getInterface().listUnitsByNames(names);
+            }
+            catch (final UnknownMethod e) {
+                handleUnknownListing(e);
+            }
+        }
+
+        Set<String> included = new HashSet<>(names);
+
+        return listUnits().stream().filter(u -> included.contains(u.getUnitName())).collect(Collectors.toList());
+    }
+
+    private void handleUnknownListing(final UnknownMethod e) {
+        filteredListingUnsupported = true;
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Falling back to local filtering of units: %s", e.getMessage()));
+        }
+    }
+
+    static List<UnitType> filterUnits(final List<UnitType> units, final List<String> states, final List<String> patterns) {
+        Set<String> included = new HashSet<>(states);
+        List<Pattern> regexes = patterns.stream().map(Manager::globToPattern).collect(Collectors.toList());
+
+        List<UnitType> filtered = new ArrayList<>();
+
+        for (UnitType unit : units) {
+            boolean stateMatch = included.isEmpty() || included.contains(unit.getLoadState()) || included.contains(unit.getActiveState()) || included.contains(unit.getSubState());
+            boolean nameMatch = regexes.isEmpty() || regexes.stream().anyMatch(r -> r.matcher(unit.getUnitName()).matches());
+
+            if (stateMatch && nameMatch) {
+                filtered.add(unit);
+            }
+        }
+
+        return filtered;
+    }
+
+    private static Pattern globToPattern(final String glob) {
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+
+        while (i < glob.length()) {
+            char c = glob.charAt(i);
+
+            if (c == '*') {
+                regex.append(".*");
+            }
+            else if (c == '?') {
+                regex.append('.');
+            }
+            else if (c == '[' && findSetEnd(glob, i) > 0) {
+                // Character set, a leading ']' (after an optional '!') is part of the set
+                int start = i + 1;
+                int end = findSetEnd(glob, i);
+
+                regex.append('[');
+
+                if (glob.charAt(start) == '!') {
+                    regex.append('^');
+                    start++;
+                }
+
+                for (char m : glob.substring(start, end).toCharArray()) {
+                    if ("\\[]^&".indexOf(m) >= 0) {
+                        regex.append('\\');
+                    }
+
+                    regex.append(m);
+                }
+
+                regex.append(']');
+                i = end;
+            }
+            else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+
+            i++;
+        }
+
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Returns the index of the bracket closing the character set which is
+     * opened at the given index or -1 if the set is not closed (the opening
+     * bracket is a literal then).
+     */
+    private static int findSetEnd(final String glob, final int open) {
+        int first = open + 1;
+
+        if (first < glob.length() && glob.charAt(first) == '!') {
+            first++;
+        }
+
+        // Set is never empty, so the first member may be a closing bracket
+        return first < glob.length() ? glob.indexOf(']', first + 1) : -1;
+    }
+
     public long lookupDynamicUserByName(final String name) {
         return getInterface().lookupDynamicUserByName(name);
     }
@@ -236,6 +433,14 @@ public class Manager extends InterfaceAdapter {
         return getInterface().reloadOrRestartUnit(name, mode);
     }
 
+    public CompletableFuture<org.freedesktop.dbus.Path> reloadOrRestartUnitAsync(final String name, final Mode mode) {
+        return reloadOrRestartUnitAsync(name, mode.getValue());
+    }
+
+    public CompletableFuture<org.freedesktop.dbus.Path> reloadOrRestartUnitAsync(final String name, final String mode) {
+        return callAsync("reloadOrRestartUnit", name, mode);
+    }
+
     public org.freedesktop.dbus.Path reloadOrTryRestartUnit(final String name, final Mode mode) {
         return reloadOrTryRestartUnit(name, mode.getValue());
     }
@@ -244,6 +449,14 @@ public class Manager extends InterfaceAdapter {
         return getInterface().reloadOrTryRestartUnit(name, mode);
     }
 
+    public CompletableFuture<org.freedesktop.dbus.Path> reloadOrTryRestartUnitAsync(final String name, final Mode mode) {
+        return reloadOrTryRestartUnitAsync(name, mode.getValue());
+    }
+
+    public CompletableFuture<org.freedesktop.dbus.Path> reloadOrTryRestartUnitAsync(final String name, final String mode) {
+        return callAsync("reloadOrTryRestartUnit", name, mode);
+    }
+
     public org.freedesktop.dbus.Path reloadUnit(final String name, final Mode mode) {
         return reloadUnit(name, mode.getValue());
     }
@@ -252,10 +465,22 @@ public class Manager extends InterfaceAdapter {
         return getInterface().reloadUnit(name, mode);
     }
 
+    public CompletableFuture<org.freedesktop.dbus.Path> reloadUnitAsync(final String name, final Mode mode) {
+        return reloadUnitAsync(name, mode.getValue());
+    }
+
+    public CompletableFuture<org.freedesktop.dbus.Path> reloadUnitAsync(final String name, final String mode) {
+        return callAsync("reloadUnit", name, mode);
+    }
+
     public void resetFailedUnit(final String name) {
         getInterface().resetFailedUnit(name);
     }
 
+    public CompletableFuture<Void> resetFailedUnitAsync(final String name) {
+        return callAsync("resetFailedUnit", name);
+    }
+
     public org.freedesktop.dbus.Path restartUnit(final String name, final Mode mode) {
         return restartUnit(name, mode.getValue());
     }
@@ -264,6 +489,14 @@ public class Manager extends InterfaceAdapter {
         return getInterface().restartUnit(name, mode);
     }
 
+    public CompletableFuture<org.freedesktop.dbus.Path> restartUnitAsync(final String name, final Mode mode) {
+        return restartUnitAsync(name, mode.getValue());
+    }
+
+    public CompletableFuture<org.freedesktop.dbus.Path> restartUnitAsync(final String name, final String mode) {
+        return callAsync("restartUnit", name, mode);
+    }
+
     public org.freedesktop.dbus.Path startUnit(final String name, final Mode mode) {
         return startUnit(name, mode.getValue());
     }
@@ -272,6 +505,14 @@ public class Manager extends InterfaceAdapter {
         return getInterface().startUnit(name, mode);
     }
 
+    public CompletableFuture<org.freedesktop.dbus.Path> startUnitAsync(final String name, final Mode mode) {
+        return startUnitAsync(name, mode.getValue());
+    }
+
+    public CompletableFuture<org.freedesktop.dbus.Path> startUnitAsync(final String name, final String mode) {
+        return callAsync("startUnit", name, mode);
+    }
+
     public org.freedesktop.dbus.Path stopUnit(final String name, final Mode mode) {
         return stopUnit(name, mode.getValue());
     }
@@ -280,6 +521,14 @@ public class Manager extends InterfaceAdapter {
         return getInterface().stopUnit(name, mode);
     }
 
+    public CompletableFuture<org.freedesktop.dbus.Path> stopUnitAsync(final String name, final Mode mode) {
+        return stopUnitAsync(name, mode.getValue());
+    }
+
+    public CompletableFuture<org.freedesktop.dbus.Path> stopUnitAsync(final String name, final String mode) {
+        return callAsync("stopUnit", name, mode);
+    }
+
     public org.freedesktop.dbus.Path tryRestartUnit(final String name, final Mode mode) {
         return tryRestartUnit(name, mode.getValue());
     }
@@ -288,76 +537,270 @@ public class Manager extends InterfaceAdapter {
         return getInterface().tryRestartUnit(name, mode);
     }
 
+    public CompletableFuture<org.freedesktop.dbus.Path> tryRestartUnitAsync(final String name, final Mode mode) {
+        return tryRestartUnitAsync(name, mode.getValue());
+    }
+
+    public CompletableFuture<org.freedesktop.dbus.Path> tryRestartUnitAsync(final String name, final String mode) {
+        return callAsync("tryRestartUnit", name, mode);
+    }
+
     public void unrefUnit(final String name) {
         getInterface().unrefUnit(name);
     }
 
+    /**
+     * Subscribes to signals of systemd. The subscription is always made on the
+     * primary connection, which receives the signals.
+     */
     public synchronized void subscribe() {
         if (!subscribed) {
-            getInterface().subscribe();
+            ((ManagerInterface) getPrimaryInterface()).subscribe();
 
             subscribed = true;
         }
     }
 
+    private synchronized void resubscribe() {
+        if (subscribed) {
+            try {
+                ((ManagerInterface) getPrimaryInterface()).subscribe();
+            }
+            catch (final DBusExecutionException e) {
+                // Subscriptions may survive a re-execution of systemd
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Unable to renew subscription: %s", e.getMessage()));
+                }
+            }
+        }
+    }
+
     public synchronized void unsubscribe() {
         if (subscribed) {
-            getInterface().unsubscribe();
+            ((ManagerInterface) getPrimaryInterface()).unsubscribe();
 
             subscribed = false;
         }
     }
 
+    /**
+     * Enables caching of the unit adapters returned by {@link #getUnit(String)}
+     * and the typed getters (e.g. {@link #getService(String)}). Repeated lookups
+     * of a cached unit return the same adapter instead of creating new remote
+     * proxies. The cache holds at most the given number of adapters and evicts
+     * the least recently used one. Adapters of units removed by systemd are
+     * dropped, which requires a subscription (see {@link #subscribe()}) that is
+     * established by this method.<p>
+     *
+     * @param capacity The maximum number of cached adapters.
+     * @throws DBusException If the signal handler cannot be registered.
+     */
+    public synchronized void enableUnitCache(final int capacity) throws DBusException {
+        UnitCache update = new UnitCache(capacity);
+
+        disableUnitCache();
+        subscribe();
+
+        registerHandler(UnitRemoved.class, update, true);
+
+        unitCache = update;
+    }
+
+    public synchronized void disableUnitCache() throws DBusException {
+        UnitCache current = unitCache;
+
+        if (current != null) {
+            // Keeps the cache enabled if its handler is still registered
+            unregisterHandler(UnitRemoved.class, current, true);
+
+            unitCache = null;
+            current.clear();
+        }
+    }
+
+    ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Stripes method calls of this manager and of its unit adapters across the
+     * given connection pool (or the primary connection if <code>null</code>).
+     * Unit adapters which are neither cached nor have signal handlers
+     * registered keep their previous setting.
+     */
+    void setConnectionPool(final ConnectionPool pool) {
+        connectionPool = pool;
+
+        stripe(pool);
+
+        for (Unit unit : getBoundUnits()) {
+            unit.stripe(pool);
+        }
+    }
+
+    private Set<Unit> getBoundUnits() {
+        Set<Unit> units = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        synchronized (boundUnits) {
+            units.addAll(boundUnits);
+        }
+
+        UnitCache cache = unitCache;
+
+        if (cache != null) {
+            units.addAll(cache.values());
+        }
+
+        return units;
+    }
+
+    void bindUnit(final Unit unit) {
+        synchronized (boundUnits) {
+            boundUnits.add(unit);
+        }
+    }
+
+    void unbindUnit(final Unit unit) {
+        synchronized (boundUnits) {
+            boundUnits.remove(unit);
+        }
+    }
+
+    /**
+     * Routes the <code>PropertiesChanged</code> signals of the given unit to
+     * the given handler. All routes share a single consumer which is registered
+     * with the first route (without object path, but restricted to systemd as
+     * sender) and dispatches each signal by its object path. The number of
+     * signal handlers, match rules and consumers therefore does not grow with
+     * the number of watched units.
+     */
+    void addPropertiesRoute(final Unit unit, final DBusSigHandler<PropertiesChanged> handler) throws DBusException {
+        synchronized (propertiesDemultiplexer) {
+            if (propertiesDemultiplexer.isEmpty()) {
+                subscribe();
+                addConsumer(PropertiesChanged.class, propertiesDemultiplexer);
+            }
+
+            propertiesDemultiplexer.add(unit.getObjectPath(), handler);
+        }
+
+        bindUnit(unit);
+    }
+
+    void removePropertiesRoute(final Unit unit, final DBusSigHandler<PropertiesChanged> handler) throws DBusException {
+        synchronized (propertiesDemultiplexer) {
+            if (propertiesDemultiplexer.remove(unit.getObjectPath(), handler)) {
+                removeConsumer(PropertiesChanged.class, propertiesDemultiplexer);
+            }
+        }
+    }
+
+    void bindMonitor(final UnitMonitor monitor) {
+        if (!boundMonitors.contains(monitor)) {
+            boundMonitors.add(monitor);
+        }
+    }
+
+    void unbindMonitor(final UnitMonitor monitor) {
+        boundMonitors.remove(monitor);
+    }
+
+    /**
+     * Binds this manager to the given connection. Besides the manager's own
+     * signal handlers, the subscription, all cached unit adapters and all unit
+     * adapters with registered handlers are restored. Monitors with default
+     * handlers are refreshed afterwards, so they catch up with changes missed
+     * while the connection was unavailable.
+     */
+    @Override
+    void rebind(final DBusConnection update) throws DBusException {
+        super.rebind(update);
+
+        resubscribe();
+
+        for (Unit unit : getBoundUnits()) {
+            try {
+                unit.rebind(update);
+            }
+            catch (final DBusException e) {
+                log.error(String.format("Unable to rebind unit '%s'", unit), e);
+            }
+        }
+
+        for (UnitMonitor monitor : boundMonitors) {
+            try {
+                monitor.refresh();
+            }
+            catch (final DBusException | RuntimeException e) {
+                log.error(UnitMonitor.ERROR_MSG_MONITOR_REFRESH, e);
+            }
+        }
+    }
+
+    public boolean isUnitCacheEnabled() {
+        return unitCache != null;
+    }
+
     public Automount getAutomount(final String name) throws DBusException {
-        return Automount.create(this, name);
+        return lookupUnit(name, Automount.UNIT_SUFFIX, Automount.class, () -> Automount.create(this, name));
     }
 
     public BusName getBusName(final String name) throws DBusException {
-        return BusName.create(this, name);
+        return lookupUnit(name, BusName.UNIT_SUFFIX, BusName.class, () -> BusName.create(this, name));
     }
 
     public Device getDevice(final String name) throws DBusException {
-        return Device.create(this, name);
+        return lookupUnit(name, Device.UNIT_SUFFIX, Device.class, () -> Device.create(this, name));
     }
 
     public Mount getMount(final String name) throws DBusException {
-        return Mount.create(this, name);
+        return lookupUnit(name, Mount.UNIT_SUFFIX, Mount.class, () -> Mount.create(this, name));
     }
 
     public Path getPath(final String name) throws DBusException {
-        return Path.create(this, name);
+        return lookupUnit(name, Path.UNIT_SUFFIX, Path.class, () -> Path.create(this, name));
     }
 
     public Scope getScope(final String name) throws DBusException {
-        return Scope.create(this, name);
+        return lookupUnit(name, Scope.UNIT_SUFFIX, Scope.class, () -> Scope.create(this, name));
     }
 
     public Service getService(final String name) throws DBusException {
-        return Service.create(this, name);
+        return lookupUnit(name, Service.UNIT_SUFFIX, Service.class, () -> Service.create(this, name));
     }
 
     public Slice getSlice(final String name) throws DBusException {
-        return Slice.create(this, name);
+        return lookupUnit(name, Slice.UNIT_SUFFIX, Slice.class, () -> Slice.create(this, name));
     }
 
     public Snapshot getSnapshot(final String name) throws DBusException {
-        return Snapshot.create(this, name);
+        return lookupUnit(name, Snapshot.UNIT_SUFFIX, Snapshot.class, () -> Snapshot.create(this, name));
     }
 
     public Socket getSocket(final String name) throws DBusException {
-        return Socket.create(this, name);
+        return lookupUnit(name, Socket.UNIT_SUFFIX, Socket.class, () -> Socket.create(this, name));
     }
 
     public Swap getSwap(final String name) throws DBusException {
-        return Swap.create(this, name);
+        return lookupUnit(name, Swap.UNIT_SUFFIX, Swap.class, () -> Swap.create(this, name));
     }
 
     public Target getTarget(final String name) throws DBusException {
-        return Target.create(this, name);
+        return lookupUnit(name, Target.UNIT_SUFFIX, Target.class, () -> Target.create(this, name));
     }
 
     public Timer getTimer(final String name) throws DBusException {
-        return Timer.create(this, name);
+        return lookupUnit(name, Timer.UNIT_SUFFIX, Timer.class, () -> Timer.create(this, name));
+    }
+
+    private <T extends Unit> T lookupUnit(final String name, final String suffix, final Class<T> type, final UnitCache.Factory<T> factory) throws DBusException {
+        UnitCache current = unitCache;
+
+        if (current != null) {
+            return current.get(Unit.normalizeName(name, suffix), type, factory);
+        }
+
+        return factory.create();
     }
 
     public Unit getUnit(final String fullName) throws DBusException {
@@ -411,6 +854,149 @@ public class Manager extends InterfaceAdapter {
         return unit;
     }
 
+    /**
+     * Reads the given properties of several units at once. One
+     * <code>GetAll</code> call is issued per unit and all calls are sent
+     * without waiting for preceding replies, so the total latency is close to
+     * that of a single round trip instead of the sum of all round trips.<p>
+     *
+     * Properties of all interfaces of a unit are considered, e.g. a service's
+     * <code>ActiveState</code> (unit interface) as well as its
+     * <code>MemoryCurrent</code> (service interface). Units whose properties
+     * cannot be read are omitted from the result. The replies are awaited at
+     * most {@link #DEFAULT_PROPERTIES_TIMEOUT} milliseconds.
+     *
+     * @param unitNames The full names of the units (e.g. <code>cronie.service</code>).
+     * @param propertyNames The names of the properties to return or <code>null</code> for all.
+     * @return An unmodifiable map of unit names to the requested property values.
+     * @throws DBusException If a remote object cannot be obtained.
+     */
+    public Map<String, Map<String, Variant<?>>> getUnitProperties(final Collection<String> unitNames, final Set<String> propertyNames) throws DBusException {
+        return getUnitProperties(unitNames, propertyNames, DEFAULT_PROPERTIES_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the given properties of several units at once, see
+     * {@link #getUnitProperties(Collection, Set)}. Units whose reply is not
+     * received within the given timeout are omitted from the result like
+     * units whose properties cannot be read, their pending calls are
+     * cancelled.<p>
+     *
+     * @param unitNames The full names of the units (e.g. <code>cronie.service</code>).
+     * @param propertyNames The names of the properties to return or <code>null</code> for all.
+     * @param timeout The maximum time to wait for all replies.
+     * @param unit The time unit of the timeout.
+     * @return An unmodifiable map of unit names to the requested property values.
+     * @throws DBusException If a remote object cannot be obtained.
+     * @throws DBusExecutionException If interrupted while waiting for the replies.
+     */
+    public Map<String, Map<String, Variant<?>>> getUnitProperties(final Collection<String> unitNames, final Set<String> propertyNames, final long timeout, final TimeUnit unit) throws DBusException {
+        Map<String, CompletableFuture<Map<String, Variant<?>>>> calls = callUnitProperties(unitNames);
+        Map<String, Map<String, Variant<?>>> results = new HashMap<>(calls.size() * 4 / 3 + 1);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int late = 0;
+
+        try {
+            for (Map.Entry<String, CompletableFuture<Map<String, Variant<?>>>> entry : calls.entrySet()) {
+                String unitName = entry.getKey();
+
+                try {
+                    Map<String, Variant<?>> values = entry.getValue().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                    if (values != null) {
+                        results.put(unitName, Collections.unmodifiableMap(filterProperties(values, propertyNames)));
+                    }
+                }
+                catch (final TimeoutException e) {
+                    late++;
+                }
+                catch (final ExecutionException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Unable to read properties of unit '%s': %s", unitName, e.getCause().getMessage()));
+                    }
+                }
+            }
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new DBusExecutionException("Interrupted while reading unit properties");
+        }
+        finally {
+            // Detaches the callbacks of replies which are still pending
+            calls.values().forEach(c -> c.cancel(false));
+        }
+
+        if (late > 0) {
+            log.warn(String.format("Timed out reading properties of %d of %d units", late, calls.size()));
+        }
+
+        return Collections.unmodifiableMap(results);
+    }
+
+    public CompletableFuture<Map<String, Map<String, Variant<?>>>> getUnitPropertiesAsync(final Collection<String> unitNames, final Set<String> propertyNames) throws DBusException {
+        Map<String, CompletableFuture<Map<String, Variant<?>>>> calls = callUnitProperties(unitNames);
+        Map<String, Map<String, Variant<?>>> results = new ConcurrentHashMap<>(calls.size() * 4 / 3 + 1);
+        List<CompletableFuture<?>> pending = new ArrayList<>(calls.size());
+
+        for (Map.Entry<String, CompletableFuture<Map<String, Variant<?>>>> entry : calls.entrySet()) {
+            String unitName = entry.getKey();
+
+            pending.add(entry.getValue().handle((values, error) -> {
+                if (error != null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Unable to read properties of unit '%s': %s", unitName, error.getMessage()));
+                    }
+                }
+                else if (values != null) {
+                    results.put(unitName, Collections.unmodifiableMap(filterProperties(values, propertyNames)));
+                }
+
+                return null;
+            }));
+        }
+
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[pending.size()])).thenApply(v -> Collections.unmodifiableMap(results));
+    }
+
+    private Map<String, CompletableFuture<Map<String, Variant<?>>>> callUnitProperties(final Collection<String> unitNames) throws DBusException {
+        Map<String, CompletableFuture<Map<String, Variant<?>>>> calls = new LinkedHashMap<>(unitNames.size() * 4 / 3 + 1);
+
+        ConnectionPool pool = connectionPool;
+
+        for (String unitName : unitNames) {
+            DBusConnection connection = pool != null ? pool.get(pool.nextIndex()) : null;
+
+            if (connection == null) {
+                connection = dbus;
+            }
+
+            PropertyInterface remote = connection.getRemoteObject(Systemd.SERVICE_NAME, Unit.OBJECT_PATH + Systemd.escapePath(unitName), PropertyInterface.class);
+
+            calls.put(unitName, callAsync(connection, remote, "getAllProperties", ""));
+        }
+
+        return calls;
+    }
+
+    private static Map<String, Variant<?>> filterProperties(final Map<String, Variant<?>> values, final Set<String> propertyNames) {
+        if (propertyNames == null || propertyNames.isEmpty()) {
+            return values;
+        }
+
+        Map<String, Variant<?>> filtered = new HashMap<>(propertyNames.size() * 4 / 3 + 1);
+
+        for (String propertyName : propertyNames) {
+            Variant<?> value = values.get(propertyName);
+
+            if (value != null) {
+                filtered.put(propertyName, value);
+            }
+        }
+
+        return filtered;
+    }
+
     public String getArchitecture() {
         return properties.getString(Property.ARCHITECTURE);
     }
@@ -155,7 +155,7 @@ public class Mount extends Unit implements DynamicUserAccounting, IoAccounting,
     private Mount(final Manager manager, final MountInterface iface, final String name) throws DBusException {
         super(manager, iface, name);
 
-        this.properties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.properties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
     }
 
     static Mount create(final Manager manager, String name) throws DBusException {
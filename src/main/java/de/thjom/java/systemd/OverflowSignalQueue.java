@@ -0,0 +1,429 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusInterface;
+import org.freedesktop.dbus.DBusInterfaceName;
+import org.freedesktop.dbus.DBusMemberName;
+import org.freedesktop.dbus.DBusSignal;
+import org.freedesktop.dbus.Variant;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorator which applies a {@link SignalOverflowPolicy} if the underlying
+ * queue is full, so that producers (i.e. the dispatching threads of dbus-java)
+ * are not blocked by a slow consumer. Dropped and coalesced signals are
+ * counted.
+ */
+final class OverflowSignalQueue<T extends DBusSignal> implements SignalQueue<T> {
+
+    private static final int MAX_OVERFLOW_SIGNALS = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(OverflowSignalQueue.class);
+
+    private final SignalQueue<T> delegate;
+    private final SignalOverflowPolicy policy;
+    private final long timeout;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private final Deque<Pending<T>> overflow = new ArrayDeque<>();
+    private final Map<String, Pending<T>> mergeTargets = new HashMap<>();
+    private final Set<String> unmergeable = new HashSet<>();
+    private int overflowSignals = 0;
+    private volatile int overflowSize = 0;
+
+    OverflowSignalQueue(final SignalQueue<T> delegate, final SignalOverflowPolicy policy, final long timeout, final TimeUnit unit) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.policy = Objects.requireNonNull(policy);
+        this.timeout = unit.toNanos(timeout);
+    }
+
+    @Override
+    public void put(final T item) throws InterruptedException {
+        if (overflowSize == 0 && delegate.offer(item)) {
+            return;
+        }
+
+        switch (policy) {
+            case BLOCK:
+                delegate.put(item);
+                break;
+            case BLOCK_WITH_TIMEOUT:
+                if (!delegate.offer(item, timeout, TimeUnit.NANOSECONDS)) {
+                    drop(item);
+                }
+                break;
+            case DROP_NEWEST:
+                drop(item);
+                break;
+            case DROP_OLDEST:
+                replaceOldest(item);
+                break;
+            case COALESCE_BY_OBJECT_PATH:
+                coalesce(item);
+                break;
+        }
+    }
+
+    @Override
+    public boolean offer(final T item) {
+        return delegate.offer(item);
+    }
+
+    @Override
+    public boolean offer(final T item, final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.offer(item, timeout, unit);
+    }
+
+    @Override
+    public T evict() {
+        return delegate.evict();
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        T item = delegate.take();
+        flush();
+
+        return item;
+    }
+
+    @Override
+    public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        T item = delegate.poll(timeout, unit);
+        flush();
+
+        return item;
+    }
+
+    @Override
+    public int drainTo(final Collection<? super T> drain) {
+        int drained = delegate.drainTo(drain);
+
+        while (overflowSize > 0) {
+            flush();
+
+            drained += delegate.drainTo(drain);
+        }
+
+        return drained;
+    }
+
+    @Override
+    public void clear() {
+        synchronized (overflow) {
+            overflow.clear();
+            mergeTargets.clear();
+            unmergeable.clear();
+            overflowSignals = 0;
+            overflowSize = 0;
+        }
+
+        delegate.clear();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size() + overflowSize;
+    }
+
+    @Override
+    public long getReorderWindow(final TimeUnit unit) {
+        return delegate.getReorderWindow(unit);
+    }
+
+    @Override
+    public long getTransferDelay() {
+        return delegate.getTransferDelay();
+    }
+
+    @Override
+    public void setTransferDelay(final long transferDelay) {
+        delegate.setTransferDelay(transferDelay);
+    }
+
+    public SignalOverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private void drop(final T item) {
+        dropped.increment();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Signal queue full, dropping signal: %s", item));
+        }
+    }
+
+    private void replaceOldest(final T item) {
+        T evicted;
+
+        do {
+            evicted = delegate.evict();
+
+            if (evicted != null) {
+                drop(evicted);
+            }
+
+            if (delegate.offer(item)) {
+                return;
+            }
+        }
+        while (evicted != null);
+
+        drop(item);
+    }
+
+    /**
+     * Keeps signals in order while the queue is full. Once a signal is held
+     * back, all following signals are held back as well until the queue has
+     * room again. Property changes of the same object path and interface are
+     * merged while no other signal was held back in between and no merge of
+     * them failed, so the changes of each object path are applied in order.
+     * Other signals share the object path of the manager and cannot be
+     * merged: up to {@link #MAX_OVERFLOW_SIGNALS} of them are held back, the
+     * oldest is dropped beyond.
+     */
+    private void coalesce(final T item) {
+        synchronized (overflow) {
+            if (overflow.isEmpty() && !(item instanceof PropertiesChanged)) {
+                replaceOldest(item);
+
+                return;
+            }
+
+            if (item instanceof PropertiesChanged) {
+                coalesceProperties(coalescingKey((PropertiesChanged) item), item);
+            }
+            else {
+                // Changes held back so far must not be merged with later ones
+                mergeTargets.clear();
+
+                overflow.addLast(new Pending<>(null, item));
+                overflowSignals++;
+
+                if (overflowSignals > MAX_OVERFLOW_SIGNALS) {
+                    dropOldestSignal();
+                }
+            }
+
+            transfer();
+        }
+    }
+
+    private void coalesceProperties(final String key, final T item) {
+        Pending<T> target = mergeTargets.get(key);
+
+        if (target != null) {
+            T merged = target.signal.getSerial() > item.getSerial() ? merge(item, target.signal) : merge(target.signal, item);
+
+            if (merged != null) {
+                target.signal = merged;
+                coalesced.increment();
+
+                return;
+            }
+
+            // Unable to merge, later changes must not overtake this signal
+            mergeTargets.remove(key);
+            unmergeable.add(key);
+        }
+
+        Pending<T> pending = new Pending<>(key, item);
+        overflow.addLast(pending);
+
+        if (!unmergeable.contains(key)) {
+            mergeTargets.put(key, pending);
+        }
+    }
+
+    private void dropOldestSignal() {
+        Iterator<Pending<T>> pending = overflow.iterator();
+
+        while (pending.hasNext()) {
+            Pending<T> next = pending.next();
+
+            if (next.key == null) {
+                pending.remove();
+                overflowSignals--;
+
+                drop(next.signal);
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Merges the property changes of two signals of the same object path and
+     * interface. The merged signal reports the serial of the later signal, so
+     * that it keeps its position in a sequencing queue.<p>
+     *
+     * @return The merged signal or <code>null</code> if the signals cannot be merged.
+     */
+    @SuppressWarnings("unchecked")
+    private T merge(final T earlier, final T later) {
+        PropertiesChanged first = (PropertiesChanged) earlier;
+        PropertiesChanged second = (PropertiesChanged) later;
+
+        Map<String, Variant<?>> changed = new HashMap<>();
+        Set<String> invalidated = new LinkedHashSet<>();
+
+        if (first.changedProperties != null) {
+            changed.putAll(first.changedProperties);
+        }
+
+        if (first.invalidatedProperties != null) {
+            invalidated.addAll(first.invalidatedProperties);
+        }
+
+        if (second.changedProperties != null) {
+            changed.putAll(second.changedProperties);
+            invalidated.removeAll(second.changedProperties.keySet());
+        }
+
+        if (second.invalidatedProperties != null) {
+            second.invalidatedProperties.forEach(changed::remove);
+            invalidated.addAll(second.invalidatedProperties);
+        }
+
+        // The later signal already covers all changes
+        if (changed.keySet().equals(keys(second.changedProperties)) && invalidated.equals(keys(second.invalidatedProperties))) {
+            return later;
+        }
+
+        try {
+            MergedSignals.MergedPropertiesChanged merged = new MergedSignals.MergedPropertiesChanged(second.getPath(), second.interfaceName, changed, new ArrayList<>(invalidated));
+            merged.latestSerial = second.getSerial();
+
+            return (T) merged;
+        }
+        catch (final DBusException e) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Unable to merge property changes of %s: %s", second.getPath(), e.getMessage()));
+            }
+
+            return null;
+        }
+    }
+
+    private static Set<String> keys(final Map<String, ?> map) {
+        return map != null ? map.keySet() : Collections.emptySet();
+    }
+
+    private static Set<String> keys(final List<String> list) {
+        return list != null ? new LinkedHashSet<>(list) : Collections.emptySet();
+    }
+
+    private void flush() {
+        if (overflowSize > 0) {
+            synchronized (overflow) {
+                transfer();
+            }
+        }
+    }
+
+    private void transfer() {
+        Pending<T> pending;
+
+        while ((pending = overflow.peekFirst()) != null && delegate.offer(pending.signal)) {
+            overflow.removeFirst();
+
+            if (pending.key == null) {
+                overflowSignals--;
+            }
+            else if (mergeTargets.get(pending.key) == pending) {
+                mergeTargets.remove(pending.key);
+            }
+        }
+
+        if (overflow.isEmpty()) {
+            unmergeable.clear();
+        }
+
+        overflowSize = overflow.size();
+    }
+
+    private static String coalescingKey(final PropertiesChanged signal) {
+        return signal.getPath() + '\n' + signal.interfaceName;
+    }
+
+    private static final class Pending<T> {
+
+        private final String key;
+        private T signal;
+
+        Pending(final String key, final T signal) {
+            this.key = key;
+            this.signal = signal;
+        }
+
+    }
+
+    /**
+     * Declares signals created by merging, as dbus-java requires signals to be
+     * members of an interface.
+     */
+    @DBusInterfaceName("org.freedesktop.DBus.Properties")
+    interface MergedSignals extends DBusInterface {
+
+        /**
+         * Merged property changes, which report the serial of the latest
+         * merged signal instead of a serial of this connection.
+         */
+        @DBusMemberName("PropertiesChanged")
+        final class MergedPropertiesChanged extends PropertiesChanged {
+
+            private long latestSerial;
+
+            public MergedPropertiesChanged(final String path, final String interfaceName, final Map<String, Variant<?>> changedProperties, final List<String> invalidatedProperties) throws DBusException {
+                super(path, interfaceName, changedProperties, invalidatedProperties);
+            }
+
+            @Override
+            public long getSerial() {
+                return latestSerial;
+            }
+
+        }
+
+    }
+
+}
@@ -44,7 +44,7 @@ public class Path extends Unit {
     private Path(final Manager manager, final PathInterface iface, final String name) throws DBusException {
         super(manager, iface, name);
 
-        this.properties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.properties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
     }
 
     static Path create(final Manager manager, String name) throws DBusException {
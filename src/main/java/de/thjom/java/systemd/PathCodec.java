@@ -0,0 +1,203 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Table-driven codec for the object path elements of units, which follows the
+ * label escaping of systemd: every byte of the UTF-8 encoded name outside of
+ * <code>[A-Za-z0-9]</code> (including the underscore and a leading digit) is
+ * escaped by an underscore followed by two hexadecimal digits, e.g.
+ * <code>_2e</code> for a dot. An empty name is escaped as a single underscore.
+ * Escaped names of {@link String} arguments are memoized
+ * in a small bounded cache, since the same unit names are escaped over and
+ * over again while dispatching signals.
+ */
+final class PathCodec {
+
+    static final int CACHE_LIMIT = 4096;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final boolean[] PLAIN = new boolean[128];
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    private static final ConcurrentMap<String, String> cache = new ConcurrentHashMap<>();
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            PLAIN[c] = true;
+        }
+
+        for (char c = 'A'; c <= 'Z'; c++) {
+            PLAIN[c] = true;
+        }
+
+        for (char c = '0'; c <= '9'; c++) {
+            PLAIN[c] = true;
+        }
+
+        for (int i = 0; i < HEX_VALUES.length; i++) {
+            HEX_VALUES[i] = -1;
+        }
+
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private PathCodec() {
+        super();
+    }
+
+    static String escape(final CharSequence path) {
+        if (path instanceof String) {
+            String name = (String) path;
+            String escaped = cache.get(name);
+
+            if (escaped == null) {
+                escaped = encode(name);
+
+                if (escaped != name) {
+                    if (cache.size() >= CACHE_LIMIT) {
+                        cache.clear();
+                    }
+
+                    cache.put(name, escaped);
+                }
+            }
+
+            return escaped;
+        }
+
+        return encode(path);
+    }
+
+    private static String encode(final CharSequence path) {
+        int length = path.length();
+        int plain = 0;
+
+        if (length == 0) {
+            return "_";
+        }
+
+        while (plain < length && isPlain(path.charAt(plain)) && !isLeadingDigit(path, plain)) {
+            plain++;
+        }
+
+        if (plain == length) {
+            return path.toString();
+        }
+
+        StringBuilder escaped = new StringBuilder(length + 16);
+        escaped.append(path, 0, plain);
+
+        for (int i = plain; i < length; i++) {
+            char c = path.charAt(i);
+
+            if (isPlain(c) && !isLeadingDigit(path, i)) {
+                escaped.append(c);
+            }
+            else if (c < 0x80) {
+                appendByte(escaped, c);
+            }
+            else {
+                int codePoint = Character.codePointAt(path, i);
+                i += Character.charCount(codePoint) - 1;
+
+                for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8)) {
+                    appendByte(escaped, b & 0xff);
+                }
+            }
+        }
+
+        return escaped.toString();
+    }
+
+    private static boolean isPlain(final char c) {
+        return c < PLAIN.length && PLAIN[c];
+    }
+
+    private static boolean isLeadingDigit(final CharSequence path, final int index) {
+        return index == 0 && path.charAt(0) >= '0' && path.charAt(0) <= '9';
+    }
+
+    private static void appendByte(final StringBuilder buffer, final int b) {
+        buffer.append('_');
+        buffer.append(HEX_DIGITS[(b >>> 4) & 0xf]);
+        buffer.append(HEX_DIGITS[b & 0xf]);
+    }
+
+    /**
+     * Decodes an escaped path element as created by systemd or
+     * {@link #escape(CharSequence)}, i.e. every underscore followed by two
+     * hexadecimal digits denotes one byte of the UTF-8 encoded name and a
+     * single underscore denotes the empty name.
+     */
+    static String unescape(final CharSequence escaped) {
+        int length = escaped.length();
+        int first = 0;
+
+        if (length == 1 && escaped.charAt(0) == '_') {
+            return "";
+        }
+
+        while (first < length && escaped.charAt(first) != '_') {
+            first++;
+        }
+
+        if (first == length) {
+            return escaped.toString();
+        }
+
+        byte[] bytes = new byte[length];
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = escaped.charAt(i);
+
+            if (c == '_' && i + 2 < length && hexValue(escaped.charAt(i + 1)) >= 0 && hexValue(escaped.charAt(i + 2)) >= 0) {
+                bytes[count++] = (byte) ((hexValue(escaped.charAt(i + 1)) << 4) | hexValue(escaped.charAt(i + 2)));
+                i += 2;
+            }
+            else if (c < 0x80) {
+                bytes[count++] = (byte) c;
+            }
+            else {
+                // Not a valid path element, keep remainder as is
+                return new String(bytes, 0, count, StandardCharsets.UTF_8) + escaped.subSequence(i, length);
+            }
+        }
+
+        return new String(bytes, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private static int hexValue(final char c) {
+        return c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+    }
+
+    static void clearCache() {
+        cache.clear();
+    }
+
+    static int cacheSize() {
+        return cache.size();
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodic runner of a blocking task. Ticks are scheduled on the shared
+ * scheduler while the task itself runs on a shared call executor, so that any
+ * number of pollers needs neither a thread of its own nor blocks the
+ * scheduler.<p>
+ *
+ * The next tick is scheduled once the task has finished, hence runs never
+ * overlap and overrunning runs do not pile up. The effective period is
+ * stretched to a multiple of the observed task duration and randomized by a
+ * jitter, so that pollers started at the same time do not stay in lockstep.
+ * Failures are logged and do not end the polling.
+ */
+final class Poller {
+
+    @FunctionalInterface
+    interface Task {
+
+        void run() throws DBusException;
+
+    }
+
+    /**
+     * Factor by which the effective period exceeds the average task duration.
+     */
+    static final long COST_FACTOR = 4L;
+
+    private static final Logger log = LoggerFactory.getLogger(Poller.class);
+
+    private final String name;
+    private final Task task;
+    private final long period;
+    private final double jitter;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile boolean cancelled;
+    private volatile ScheduledFuture<?> nextTick;
+    private volatile long averageCost = -1L;
+
+    Poller(final String name, final Task task, final long period, final double jitter) {
+        if (period <= 0L || jitter < 0.0 || jitter >= 1.0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.name = name;
+        this.task = task;
+        this.period = period;
+        this.jitter = jitter;
+    }
+
+    void start(final long delay) {
+        schedule(randomize(Math.max(0L, delay)));
+    }
+
+    void cancel() {
+        cancelled = true;
+
+        ScheduledFuture<?> tick = nextTick;
+
+        if (tick != null) {
+            tick.cancel(false);
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the period in milliseconds the next tick is scheduled by,
+     * excluding jitter.
+     */
+    long getEffectivePeriod() {
+        long cost = averageCost;
+
+        if (cost < 0L) {
+            return period;
+        }
+
+        return Math.max(period, TimeUnit.NANOSECONDS.toMillis(cost) * COST_FACTOR);
+    }
+
+    private long randomize(final long delay) {
+        if (jitter == 0.0 || delay == 0L) {
+            return delay;
+        }
+
+        double offset = ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+
+        return Math.max(0L, Math.round(delay * (1.0 + offset)));
+    }
+
+    private void schedule(final long delay) {
+        if (!cancelled) {
+            nextTick = SharedScheduler.get().schedule(this::tick, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void tick() {
+        if (cancelled) {
+            return;
+        }
+
+        // Skip the tick while a run is still in flight
+        if (!running.compareAndSet(false, true)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Skipping tick of poller '%s' (previous run in flight)", name));
+            }
+
+            schedule(randomize(getEffectivePeriod()));
+
+            return;
+        }
+
+        try {
+            Holder.CALLS.execute(this::run);
+        }
+        catch (final RejectedExecutionException e) {
+            running.set(false);
+
+            log.error(String.format("Unable to run task of poller '%s'", name), e);
+
+            schedule(randomize(getEffectivePeriod()));
+        }
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+
+        try {
+            task.run();
+        }
+        catch (final DBusException | RuntimeException e) {
+            log.error(String.format("Task of poller '%s' failed", name), e);
+        }
+        finally {
+            long cost = System.nanoTime() - start;
+            long average = averageCost;
+
+            averageCost = average < 0L ? cost : (average * 3L + cost) / 4L;
+
+            running.set(false);
+
+            schedule(randomize(getEffectivePeriod()));
+        }
+    }
+
+    private static final class Holder {
+
+        private static final ExecutorService CALLS = SignalThreads.newCallExecutor();
+
+    }
+
+}
@@ -12,8 +12,13 @@
 package de.thjom.java.systemd;
 
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.freedesktop.DBus.Properties.PropertiesChanged;
 import org.freedesktop.dbus.DBusConnection;
 import org.freedesktop.dbus.UInt64;
 import org.freedesktop.dbus.Variant;
@@ -27,6 +32,8 @@ public class Properties extends InterfaceAdapter {
 
     private final String serviceName;
 
+    private volatile PropertyCache cache;
+
     private Properties(final DBusConnection dbus, final PropertyInterface iface, final String serviceName) {
         super(dbus, iface);
 
@@ -39,6 +46,13 @@ public class Properties extends InterfaceAdapter {
         return new Properties(dbus, iface, serviceName);
     }
 
+    static Properties create(final Manager manager, final String objectPath, final String serviceName) throws DBusException {
+        Properties properties = create(manager.dbus, objectPath, serviceName);
+        properties.stripe(manager.getConnectionPool());
+
+        return properties;
+    }
+
     @Override
     public PropertyInterface getInterface() {
         return (PropertyInterface) super.getInterface();
@@ -53,10 +67,146 @@ public class Properties extends InterfaceAdapter {
         return this;
     }
 
+    /**
+     * Enables the read-through cache of this adapter. Values fetched via
+     * {@link #getVariant(String)} (and the typed getters) or {@link #getAll()}
+     * are kept and updated in place or invalidated along received
+     * <code>PropertiesChanged</code> signals. Every value expires after the given
+     * time-to-live, which bounds the staleness of properties systemd does not
+     * announce changes for (e.g. <code>MemoryCurrent</code>).<p>
+     *
+     * Note that systemd only emits property change signals while at least one
+     * client is subscribed (see {@link Manager#subscribe()}). Without a
+     * subscription the cache falls back to time-based expiry only.
+     *
+     * @param timeToLive Maximum age of a cached value.
+     * @param unit Time unit of the time-to-live.
+     * @throws DBusException If the signal handler cannot be registered.
+     */
+    public synchronized void enableCache(final long timeToLive, final TimeUnit unit) throws DBusException {
+        PropertyCache update = new PropertyCache(serviceName, timeToLive, unit);
+
+        disableCache();
+
+        registerHandler(PropertiesChanged.class, update, true);
+
+        cache = update;
+    }
+
+    public synchronized void disableCache() throws DBusException {
+        PropertyCache current = cache;
+
+        if (current != null) {
+            cache = null;
+
+            unregisterHandler(PropertiesChanged.class, current, true);
+            current.clear();
+        }
+    }
+
+    @Override
+    void rebind(final DBusConnection update) throws DBusException {
+        PropertyCache current = cache;
+
+        if (current != null) {
+            current.clear();
+        }
+
+        super.rebind(update);
+    }
+
+    public boolean isCacheEnabled() {
+        return cache != null;
+    }
+
     public Variant<?> getVariant(final String propertyName) {
+        PropertyCache current = cache;
+
+        if (current != null) {
+            Variant<?> value = current.get(propertyName);
+
+            if (value == null) {
+                long stamp = current.stamp();
+
+                value = getInterface().getProperty(serviceName, propertyName);
+                current.putFetched(propertyName, value, stamp);
+            }
+
+            return value;
+        }
+
         return getInterface().getProperty(serviceName, propertyName);
     }
 
+    /**
+     * Non-blocking variant of {@link #getVariant(String)}. If the cache is
+     * enabled and holds a valid value the returned future is already completed.<p>
+     *
+     * @param propertyName The name of the property.
+     * @return A future of the property value.
+     */
+    public CompletableFuture<Variant<?>> getVariantAsync(final String propertyName) {
+        PropertyCache current = cache;
+
+        if (current != null) {
+            Variant<?> value = current.get(propertyName);
+
+            if (value != null) {
+                return CompletableFuture.completedFuture(value);
+            }
+
+            long stamp = current.stamp();
+
+            return this.<Variant<?>> callAsync("getProperty", serviceName, propertyName).thenApply(v -> {
+                current.putFetched(propertyName, v, stamp);
+
+                return v;
+            });
+        }
+
+        return callAsync("getProperty", serviceName, propertyName);
+    }
+
+    /**
+     * Fetches all properties of the adapted interface with a single call of
+     * <code>org.freedesktop.DBus.Properties.GetAll</code>.<p>
+     *
+     * @return An unmodifiable map of all property names and their values.
+     */
+    public Map<String, Variant<?>> getAll() {
+        PropertyCache current = cache;
+        long stamp = current != null ? current.stamp() : 0L;
+
+        Map<String, Variant<?>> values = getInterface().getAllProperties(serviceName);
+
+        if (values == null) {
+            return Collections.emptyMap();
+        }
+
+        if (current != null) {
+            current.putFetched(values, stamp);
+        }
+
+        return Collections.unmodifiableMap(values);
+    }
+
+    public CompletableFuture<Map<String, Variant<?>>> getAllAsync() {
+        PropertyCache current = cache;
+        long stamp = current != null ? current.stamp() : 0L;
+
+        return this.<Map<String, Variant<?>>> callAsync("getAllProperties", serviceName).thenApply(values -> {
+            if (values == null) {
+                return Collections.emptyMap();
+            }
+
+            if (current != null) {
+                current.putFetched(values, stamp);
+            }
+
+            return Collections.unmodifiableMap(values);
+        });
+    }
+
     public boolean getBoolean(final String propertyName) {
         Boolean value = (Boolean) getVariant(propertyName).getValue();
 
@@ -0,0 +1,82 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusSigHandler;
+
+/**
+ * Dispatches <code>PropertiesChanged</code> signals received by a single
+ * handler to the handlers registered for the object path of the signal. The
+ * handlers of an object path are looked up in a hash index, so the cost per
+ * signal does not depend on the number of registered object paths.
+ */
+final class PropertiesDemultiplexer implements DBusSigHandler<PropertiesChanged> {
+
+    private final ConcurrentMap<String, List<DBusSigHandler<PropertiesChanged>>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a handler for the given object path.<p>
+     *
+     * @return <code>true</code> if this is the first handler of this demultiplexer.
+     */
+    synchronized boolean add(final String objectPath, final DBusSigHandler<PropertiesChanged> handler) {
+        Objects.requireNonNull(handler);
+
+        boolean first = routes.isEmpty();
+
+        routes.computeIfAbsent(objectPath, p -> new CopyOnWriteArrayList<>()).add(handler);
+
+        return first;
+    }
+
+    /**
+     * Removes a handler of the given object path.<p>
+     *
+     * @return <code>true</code> if no handler of this demultiplexer is left.
+     */
+    synchronized boolean remove(final String objectPath, final DBusSigHandler<PropertiesChanged> handler) {
+        List<DBusSigHandler<PropertiesChanged>> handlers = routes.get(objectPath);
+
+        if (handlers != null && handlers.remove(handler) && handlers.isEmpty()) {
+            routes.remove(objectPath);
+        }
+
+        return routes.isEmpty();
+    }
+
+    synchronized boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    int size() {
+        return routes.size();
+    }
+
+    @Override
+    public void handle(final PropertiesChanged signal) {
+        List<DBusSigHandler<PropertiesChanged>> handlers = routes.get(signal.getPath());
+
+        if (handlers != null) {
+            for (DBusSigHandler<PropertiesChanged> handler : handlers) {
+                handler.handle(signal);
+            }
+        }
+    }
+
+}
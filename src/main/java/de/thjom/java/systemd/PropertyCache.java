@@ -0,0 +1,137 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.Variant;
+
+/**
+ * Read-through cache for the property values of a single interface on a single
+ * object path. Cached values are updated in place or invalidated by received
+ * <code>PropertiesChanged</code> signals and expire after a fixed time-to-live,
+ * which covers properties that are not announced via signals (e.g.
+ * <code>MemoryCurrent</code>).
+ */
+final class PropertyCache implements DBusSigHandler<PropertiesChanged> {
+
+    private final String serviceName;
+    private final long timeToLive;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    PropertyCache(final String serviceName, final long timeToLive, final TimeUnit unit) {
+        if (timeToLive <= 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.serviceName = Objects.requireNonNull(serviceName);
+        this.timeToLive = unit.toNanos(timeToLive);
+    }
+
+    Variant<?> get(final String propertyName) {
+        Entry entry = entries.get(propertyName);
+
+        if (entry != null) {
+            if (System.nanoTime() - entry.updated < timeToLive) {
+                // Invalidation markers yield null as well
+                return entry.value;
+            }
+
+            entries.remove(propertyName, entry);
+        }
+
+        return null;
+    }
+
+    long stamp() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Stores a value which was fetched from the bus. An entry which was updated
+     * or invalidated by a signal after the fetch was started is considered more
+     * recent and therefore retained.
+     */
+    void putFetched(final String propertyName, final Variant<?> value, final long fetchStamp) {
+        if (value != null) {
+            Entry fetched = new Entry(value, fetchStamp, 0L);
+
+            entries.merge(propertyName, fetched, (current, update) -> current.updated - fetchStamp > 0L ? current : update);
+        }
+    }
+
+    void putFetched(final Map<String, Variant<?>> values, final long fetchStamp) {
+        values.forEach((name, value) -> putFetched(name, value, fetchStamp));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return (int) entries.values().stream().filter(e -> e.value != null).count();
+    }
+
+    @Override
+    public void handle(final PropertiesChanged signal) {
+        if (!serviceName.equals(signal.interfaceName)) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long serial = signal.getSerial();
+
+        Map<String, Variant<?>> changed = signal.changedProperties;
+
+        if (changed != null) {
+            changed.forEach((name, value) -> {
+                Entry update = new Entry(value, now, serial);
+
+                entries.merge(name, update, (current, u) -> current.serial > u.serial ? current : u);
+            });
+        }
+
+        List<String> invalidated = signal.invalidatedProperties;
+
+        if (invalidated != null) {
+            // Keep a marker, so that a fetch started before is not cached
+            invalidated.forEach(name -> {
+                Entry marker = new Entry(null, now, serial);
+
+                entries.merge(name, marker, (current, m) -> current.serial > m.serial ? current : m);
+            });
+        }
+    }
+
+    private static final class Entry {
+
+        private final Variant<?> value;
+        private final long updated;
+        private final long serial;
+
+        Entry(final Variant<?> value, final long updated, final long serial) {
+            this.value = value;
+            this.updated = updated;
+            this.serial = serial;
+        }
+
+    }
+
+}
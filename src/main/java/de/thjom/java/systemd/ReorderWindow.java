@@ -0,0 +1,85 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.dbus.DBusSignal;
+
+/**
+ * Adaptive time window for which signals are held back in order to restore
+ * their sequence. The window is doubled (up to the maximum delay) whenever a
+ * signal arrives after a signal with a higher serial was already released,
+ * and shrinks gradually while signals arrive in order. Not thread-safe, the
+ * window is maintained by the consuming thread of a {@link SignalQueue}.
+ */
+final class ReorderWindow {
+
+    private static final long MIN_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+    private static final long DECAY_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(100L);
+
+    private volatile long maxDelay;
+    private volatile long window;
+
+    private long lastSerial = Long.MIN_VALUE;
+
+    ReorderWindow(final long maxDelay) {
+        reset(maxDelay);
+    }
+
+    /**
+     * Sets the maximum delay (in milliseconds) and resets the window to it.
+     */
+    void reset(final long maxDelay) {
+        if (maxDelay < 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.maxDelay = maxDelay;
+        this.window = TimeUnit.MILLISECONDS.toNanos(maxDelay);
+    }
+
+    long getMaxDelay() {
+        return maxDelay;
+    }
+
+    long get(final TimeUnit unit) {
+        return unit.convert(window, TimeUnit.NANOSECONDS);
+    }
+
+    boolean isLate(final DBusSignal signal) {
+        return lastSerial != Long.MIN_VALUE && signal.getSerial() < lastSerial;
+    }
+
+    boolean isSuccessor(final DBusSignal signal) {
+        return signal != null && lastSerial != Long.MIN_VALUE && signal.getSerial() == lastSerial + 1L;
+    }
+
+    void released(final DBusSignal signal) {
+        lastSerial = Math.max(lastSerial, signal.getSerial());
+    }
+
+    void adapt(final boolean late) {
+        long current = window;
+
+        if (late) {
+            window = Math.min(TimeUnit.MILLISECONDS.toNanos(maxDelay), Math.max(current * 2L, MIN_WINDOW_NANOS));
+        }
+        else if (current > DECAY_THRESHOLD_NANOS) {
+            window = current - current / 8L;
+        }
+        else {
+            window = 0L;
+        }
+    }
+
+}
@@ -0,0 +1,429 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.freedesktop.dbus.DBusSignal;
+
+/**
+ * Lock-free implementation of {@link SignalQueue}, based on a bounded
+ * multi-producer/single-consumer ring buffer.<p>
+ *
+ * Producers claim a slot by a single CAS operation and publish the signal by
+ * a per-slot sequence number, so neither producers nor the consumer acquire a
+ * lock. Slots are released by CAS as well, which allows producers to evict
+ * the oldest signal (see {@link #evict()}). The consumer moves published signals into a small buffer which is
+ * sorted by serial (signals usually arrive in order, so insertion is mostly
+ * an append) and releases the first signal once it directly succeeds the last
+ * released one or its reordering window (see {@link ReorderWindow}) elapsed.<p>
+ *
+ * A waiting consumer is parked and woken up by the next producer, optionally
+ * after spinning for a short time.
+ */
+final class RingSignalSequencer<T extends DBusSignal> implements SignalQueue<T> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private static final long PRODUCER_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(10L);
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+    private volatile Thread waiter;
+
+    private final boolean spinning;
+    private final ReorderBuffer<T> pending;
+    private final ReorderWindow window = new ReorderWindow(SignalSequencer.DEFAULT_TRANSFER_DELAY);
+
+    public RingSignalSequencer(final int capacity) {
+        this(capacity, false);
+    }
+
+    public RingSignalSequencer(final int capacity, final boolean spinning) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        int size = capacity > 1 ? Integer.highestOneBit(capacity - 1) << 1 : 1;
+
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.spinning = spinning;
+        this.pending = new ReorderBuffer<>(size);
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public void put(final T item) throws InterruptedException {
+        while (!offer(item)) {
+            LockSupport.parkNanos(this, PRODUCER_BACKOFF_NANOS);
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public boolean offer(final T item, final long timeout, final TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        while (!offer(item)) {
+            long remaining = deadline - System.nanoTime();
+
+            if (remaining <= 0L) {
+                return false;
+            }
+
+            LockSupport.parkNanos(this, Math.min(remaining, PRODUCER_BACKOFF_NANOS));
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public T evict() {
+        return dequeue();
+    }
+
+    @Override
+    public boolean offer(final T item) {
+        Objects.requireNonNull(item);
+
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+
+            if (diff == 0L) {
+                if (tail.compareAndSet(position, position + 1L)) {
+                    slots.lazySet(index, item);
+                    sequences.set(index, position + 1L);
+
+                    Thread consumer = waiter;
+
+                    if (consumer != null) {
+                        LockSupport.unpark(consumer);
+                    }
+
+                    return true;
+                }
+            }
+            else if (diff < 0L) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        return poll(TIMEOUT_INFINITE, null);
+    }
+
+    @Override
+    public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        boolean infinite = timeout < 0L;
+        long deadline = infinite ? 0L : System.nanoTime() + unit.toNanos(timeout);
+
+        while (true) {
+            ingest();
+
+            long now = System.nanoTime();
+            long until = deadline;
+
+            if (!pending.isEmpty()) {
+                T first = pending.peek();
+                long release = pending.peekArrival() + window.get(TimeUnit.NANOSECONDS);
+
+                if (pending.isFull() || window.isSuccessor(first) || now - release >= 0L) {
+                    return release();
+                }
+
+                if (infinite || release - deadline < 0L) {
+                    until = release;
+                }
+            }
+            else if (infinite) {
+                await(0L, true);
+
+                continue;
+            }
+
+            if (!infinite && now - deadline >= 0L) {
+                return null;
+            }
+
+            await(until - now, false);
+        }
+    }
+
+    @Override
+    public int drainTo(final Collection<? super T> drain) {
+        int drained = 0;
+
+        do {
+            ingest();
+
+            while (!pending.isEmpty()) {
+                drain.add(release());
+                drained++;
+            }
+        }
+        while (isAvailable());
+
+        return drained;
+    }
+
+    @Override
+    public void clear() {
+        while (dequeue() != null) {
+            // Discard
+        }
+
+        pending.clear();
+    }
+
+    @Override
+    public int size() {
+        long consumed = head.get();
+
+        return (int) (tail.get() - consumed) + pending.size();
+    }
+
+    @Override
+    public long getReorderWindow(final TimeUnit unit) {
+        return window.get(unit);
+    }
+
+    @Override
+    public long getTransferDelay() {
+        return window.getMaxDelay();
+    }
+
+    @Override
+    public void setTransferDelay(final long transferDelay) {
+        window.reset(transferDelay);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public boolean isSpinning() {
+        return spinning;
+    }
+
+    private boolean isAvailable() {
+        long position = head.get();
+
+        return sequences.get((int) position & mask) == position + 1L;
+    }
+
+    private T dequeue() {
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - (position + 1L);
+
+            if (diff == 0L) {
+                if (head.compareAndSet(position, position + 1L)) {
+                    T item = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1L);
+
+                    return item;
+                }
+            }
+            else if (diff < 0L) {
+                return null;
+            }
+        }
+    }
+
+    private void ingest() {
+        long now = 0L;
+
+        while (!pending.isFull()) {
+            T item = dequeue();
+
+            if (item == null) {
+                break;
+            }
+
+            if (now == 0L) {
+                now = System.nanoTime();
+            }
+
+            window.adapt(window.isLate(item));
+            pending.insert(item, now);
+        }
+    }
+
+    private T release() {
+        T item = pending.poll();
+        window.released(item);
+
+        return item;
+    }
+
+    private void await(final long nanos, final boolean indefinitely) throws InterruptedException {
+        if (spinning) {
+            for (int i = 0; i < SPIN_TRIES + YIELD_TRIES; i++) {
+                if (isAvailable()) {
+                    return;
+                }
+
+                if (i >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+            }
+        }
+
+        waiter = Thread.currentThread();
+
+        try {
+            if (!isAvailable()) {
+                if (indefinitely) {
+                    LockSupport.park(this);
+                }
+                else {
+                    LockSupport.parkNanos(this, nanos);
+                }
+            }
+        }
+        finally {
+            waiter = null;
+        }
+
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Consumer-side buffer of signals, sorted by serial. A signal inserted in
+     * front of another one inherits its arrival time if earlier, so that the
+     * first signal is never held back longer than the oldest buffered one.
+     */
+    private static final class ReorderBuffer<T extends DBusSignal> {
+
+        private final Object[] items;
+        private final long[] arrivals;
+
+        private int start = 0;
+        private volatile int count = 0;
+
+        ReorderBuffer(final int capacity) {
+            this.items = new Object[capacity];
+            this.arrivals = new long[capacity];
+        }
+
+        void insert(final T item, final long arrival) {
+            if (start + count == items.length) {
+                System.arraycopy(items, start, items, 0, count);
+                System.arraycopy(arrivals, start, arrivals, 0, count);
+                Arrays.fill(items, count, items.length, null);
+
+                start = 0;
+            }
+
+            int position = start + count;
+            long serial = item.getSerial();
+            long since = arrival;
+
+            while (position > start && serialAt(position - 1) > serial) {
+                items[position] = items[position - 1];
+                arrivals[position] = arrivals[position - 1];
+                since = Math.min(since, arrivals[position]);
+
+                position--;
+            }
+
+            items[position] = item;
+            arrivals[position] = since;
+
+            count++;
+        }
+
+        @SuppressWarnings("unchecked")
+        T peek() {
+            return count > 0 ? (T) items[start] : null;
+        }
+
+        long peekArrival() {
+            return arrivals[start];
+        }
+
+        T poll() {
+            T item = peek();
+
+            if (item != null) {
+                items[start] = null;
+
+                if (--count == 0) {
+                    start = 0;
+                }
+                else {
+                    start++;
+                }
+            }
+
+            return item;
+        }
+
+        void clear() {
+            Arrays.fill(items, null);
+
+            start = 0;
+            count = 0;
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        boolean isFull() {
+            return count == items.length;
+        }
+
+        int size() {
+            return count;
+        }
+
+        @SuppressWarnings("unchecked")
+        private long serialAt(final int position) {
+            return ((T) items[position]).getSerial();
+        }
+
+    }
+
+}
@@ -70,7 +70,7 @@ public class Scope extends Unit implements IoAccounting, IpAccounting, MemoryAcc
     private Scope(final Manager manager, final ScopeInterface iface, final String name) throws DBusException {
         super(manager, iface, name);
 
-        this.properties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.properties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
     }
 
     static Scope create(final Manager manager, String name) throws DBusException {
@@ -0,0 +1,129 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.freedesktop.DBus;
+import org.freedesktop.DBus.NameOwnerChanged;
+import org.freedesktop.dbus.DBusConnection;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.freedesktop.dbus.exceptions.DBusExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the unique bus name owning the systemd service name on a single
+ * connection. The owner is resolved once and then kept up to date by
+ * <code>NameOwnerChanged</code> signals, so that handlers restricted to the
+ * sender systemd can be moved to its new unique name, e.g. after
+ * <code>systemctl daemon-reexec</code>.
+ */
+final class ServiceOwner implements DBusSigHandler<NameOwnerChanged> {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceOwner.class);
+
+    private static final Map<DBusConnection, ServiceOwner> owners = new WeakHashMap<>();
+
+    private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+    private boolean resolved;
+    private volatile String owner;
+
+    private ServiceOwner() {
+        super();
+    }
+
+    static ServiceOwner of(final DBusConnection dbus) {
+        synchronized (owners) {
+            return owners.computeIfAbsent(dbus, c -> new ServiceOwner());
+        }
+    }
+
+    /**
+     * Returns the unique bus name of systemd or <code>null</code> if it
+     * cannot be resolved. Resolution is attempted again on the next call
+     * if it failed.<p>
+     *
+     * @param dbus The connection this owner is tracked on.
+     * @return The unique bus name of systemd.
+     */
+    synchronized String get(final DBusConnection dbus) {
+        if (!resolved) {
+            try {
+                dbus.addSigHandler(NameOwnerChanged.class, this);
+
+                DBus bus = dbus.getRemoteObject("org.freedesktop.DBus", "/org/freedesktop/DBus", DBus.class);
+
+                owner = bus != null ? bus.GetNameOwner(Systemd.SERVICE_NAME) : null;
+                resolved = true;
+            }
+            catch (final DBusException | DBusExecutionException e) {
+                log.warn(String.format("Unable to resolve owner of '%s': %s", Systemd.SERVICE_NAME, e.getMessage()));
+
+                try {
+                    dbus.removeSigHandler(NameOwnerChanged.class, this);
+                }
+                catch (final DBusException | RuntimeException ex) {
+                    // Ignore (handler may not have been added)
+                }
+            }
+        }
+
+        return owner;
+    }
+
+    /**
+     * Adds a listener which is called with the previous and the new owner
+     * after ownership of the systemd service name moved to another unique name.
+     */
+    void addListener(final BiConsumer<String, String> listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(final BiConsumer<String, String> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void handle(final NameOwnerChanged signal) {
+        if (!Systemd.SERVICE_NAME.equals(signal.name) || signal.newOwner == null || signal.newOwner.isEmpty()) {
+            return;
+        }
+
+        String previous;
+
+        synchronized (this) {
+            previous = owner;
+
+            if (signal.newOwner.equals(previous)) {
+                return;
+            }
+
+            owner = signal.newOwner;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Owner of '%s' changed from %s to %s", Systemd.SERVICE_NAME, previous, signal.newOwner));
+        }
+
+        for (BiConsumer<String, String> listener : listeners) {
+            listener.accept(previous, signal.newOwner);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Lazily created scheduler for short, non-blocking housekeeping tasks, which
+ * is shared by all adapters. Its single daemon thread does not keep the JVM
+ * alive.
+ */
+final class SharedScheduler {
+
+    private SharedScheduler() {
+        super();
+    }
+
+    static ScheduledExecutorService get() {
+        return Holder.SCHEDULER;
+    }
+
+    private static final class Holder {
+
+        private static final ScheduledExecutorService SCHEDULER = create();
+
+        private static ScheduledExecutorService create() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, SharedScheduler.class.getSimpleName());
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            scheduler.setRemoveOnCancelPolicy(true);
+
+            return scheduler;
+        }
+
+    }
+
+}
@@ -12,8 +12,11 @@
 package de.thjom.java.systemd;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.freedesktop.dbus.DBusSigHandler;
 import org.freedesktop.dbus.DBusSignal;
@@ -24,8 +27,15 @@ final class SignalConsumer<T extends DBusSignal> implements Runnable {
 
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
-    private final SignalSequencer<T> sequencer;
+    private final SignalQueue<T> sequencer;
     private final DBusSigHandler<T> handler;
+    private final Consumer<List<T>> batchHandler;
+
+    private final int maxBatchSize;
+    private final long maxBatchLatency;
+
+    private final List<T> batch = new ArrayList<>();
+    private long batchStarted;
 
     private volatile boolean running = true;
 
@@ -34,8 +44,36 @@ final class SignalConsumer<T extends DBusSignal> implements Runnable {
     }
 
     public SignalConsumer(final int queueLength, final DBusSigHandler<T> handler) {
-        this.sequencer = new SignalSequencer<>(queueLength);
+        this(new SignalSequencer<>(queueLength), handler);
+    }
+
+    public SignalConsumer(final SignalQueue<T> sequencer, final DBusSigHandler<T> handler) {
+        this.sequencer = Objects.requireNonNull(sequencer);
         this.handler = Objects.requireNonNull(handler);
+        this.batchHandler = null;
+        this.maxBatchSize = 1;
+        this.maxBatchLatency = 0L;
+    }
+
+    /**
+     * Creates a consumer which hands over signals in batches (in sequence).
+     * A batch is completed once it reaches the maximum size or the maximum
+     * latency after its first signal elapsed.
+     */
+    public SignalConsumer(final SignalQueue<T> sequencer, final Consumer<List<T>> batchHandler, final int maxBatchSize, final long maxBatchLatency, final TimeUnit unit) {
+        if (maxBatchSize < 1 || maxBatchLatency < 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.sequencer = Objects.requireNonNull(sequencer);
+        this.batchHandler = Objects.requireNonNull(batchHandler);
+        this.handler = s -> batchHandler.accept(Collections.singletonList(s));
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchLatency = unit.toNanos(maxBatchLatency);
+    }
+
+    DBusSigHandler<T> getHandler() {
+        return handler;
     }
 
     @Override
@@ -44,7 +82,12 @@ final class SignalConsumer<T extends DBusSignal> implements Runnable {
             try {
                 T signal = sequencer.take();
 
-                handler.handle(signal);
+                if (batchHandler != null) {
+                    handleBatch(signal);
+                }
+                else {
+                    handler.handle(signal);
+                }
             }
             catch (final InterruptedException e1) {
                 // Do nothing
@@ -53,20 +96,131 @@ final class SignalConsumer<T extends DBusSignal> implements Runnable {
 
         log.debug("Draining sequencer queue");
 
-        List<T> signals = new ArrayList<>(sequencer.size());
+        drain();
+
+        sequencer.clear();
+    }
+
+    /**
+     * Hands the signals which are ready (in sequence) to the handler. Used
+     * instead of {@link #run()} if signals are dispatched by an executor.
+     * Signals held back for reordering and incomplete batches (whose maximum
+     * latency has not elapsed) remain pending.<p>
+     *
+     * @return The time (in nanoseconds) after which pending signals are due or -1 if none are pending.
+     */
+    synchronized long dispatch() {
+        try {
+            T signal;
+
+            while ((signal = sequencer.poll(0L, TimeUnit.NANOSECONDS)) != null) {
+                if (batchHandler != null) {
+                    if (batch.isEmpty()) {
+                        batchStarted = System.nanoTime();
+                    }
+
+                    batch.add(signal);
+
+                    if (batch.size() >= maxBatchSize) {
+                        flushBatch();
+                    }
+                }
+                else {
+                    handler.handle(signal);
+                }
+            }
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long delay = -1L;
+
+        if (!batch.isEmpty()) {
+            long remaining = batchStarted + maxBatchLatency - System.nanoTime();
+
+            if (remaining > 0L) {
+                delay = remaining;
+            }
+            else {
+                flushBatch();
+            }
+        }
+
+        if (sequencer.size() > 0) {
+            long window = Math.max(sequencer.getReorderWindow(TimeUnit.NANOSECONDS), 1L);
+
+            delay = delay < 0L ? window : Math.min(delay, window);
+        }
+
+        return delay;
+    }
+
+    private void flushBatch() {
+        List<T> signals = new ArrayList<>(batch);
+        batch.clear();
+
+        batchHandler.accept(signals);
+    }
+
+    /**
+     * Hands all pending signals (in sequence) to the handler without waiting
+     * for the reordering window or the batch latency to elapse.<p>
+     *
+     * @return The number of handled signals.
+     */
+    synchronized int drain() {
+        List<T> signals = new ArrayList<>(batch);
+        batch.clear();
+
         sequencer.drainTo(signals);
 
-        for (T signal : signals) {
-            handler.handle(signal);
+        if (batchHandler != null) {
+            for (int i = 0; i < signals.size(); i += maxBatchSize) {
+                batchHandler.accept(signals.subList(i, Math.min(i + maxBatchSize, signals.size())));
+            }
+        }
+        else {
+            for (T signal : signals) {
+                handler.handle(signal);
+            }
         }
 
-        sequencer.clear();
+        return signals.size();
     }
 
-    public SignalSequencer<T> getSequencer() {
+    private void handleBatch(final T first) {
+        List<T> batch = new ArrayList<>(Math.min(maxBatchSize, 64));
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxBatchLatency;
+
+        try {
+            while (batch.size() < maxBatchSize) {
+                T next = sequencer.poll(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+
+                if (next == null) {
+                    break;
+                }
+
+                batch.add(next);
+            }
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        batchHandler.accept(batch);
+    }
+
+    public SignalQueue<T> getSequencer() {
         return sequencer;
     }
 
+    public boolean isRunning() {
+        return running;
+    }
+
     public void setRunning(final boolean running) {
         this.running = running;
     }
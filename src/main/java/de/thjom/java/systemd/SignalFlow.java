@@ -0,0 +1,63 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+/**
+ * Interfaces for demand driven delivery of signals, see
+ * {@link AbstractAdapter#getPublisher(Class)}.<p>
+ *
+ * These are custom interfaces of this library, since Java 8 lacks
+ * <code>java.util.concurrent.Flow</code>. They follow the same subscription
+ * protocol, but are not compatible with <code>Flow</code> or Reactive
+ * Streams types: connecting to either API requires wrapping the subscriber
+ * and the subscription in adapter classes.
+ */
+public final class SignalFlow {
+
+    private SignalFlow() {
+        // Do nothing (static implementation)
+    }
+
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        void subscribe(final Subscriber<? super T> subscriber);
+
+    }
+
+    public interface Subscriber<T> {
+
+        void onSubscribe(final Subscription subscription);
+
+        void onNext(final T item);
+
+        void onError(final Throwable throwable);
+
+        void onComplete();
+
+    }
+
+    public interface Subscription {
+
+        /**
+         * Adds the given number of items to the demand of the subscriber.
+         * Non-positive numbers cancel the subscription and signal an error.<p>
+         *
+         * @param n The number of additionally requested items.
+         */
+        void request(final long n);
+
+        void cancel();
+
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+/**
+ * Policies which apply if signals arrive faster than a consumer or listener
+ * handles them and its queue is full.
+ *
+ * @see AbstractAdapter#setSignalOverflowPolicy(SignalOverflowPolicy)
+ */
+public enum SignalOverflowPolicy {
+
+    /**
+     * The dispatching thread of dbus-java waits until the signal is queued.
+     * This stalls the delivery of signals to all other handlers on the same
+     * connection.
+     */
+    BLOCK,
+
+    /**
+     * The dispatching thread of dbus-java waits up to the overflow timeout,
+     * afterwards the signal is dropped.
+     */
+    BLOCK_WITH_TIMEOUT,
+
+    /**
+     * The new signal is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest queued signal is dropped in favor of the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * A new <code>PropertiesChanged</code> signal is merged with a pending
+     * signal of the same object path and interface: later values replace
+     * earlier ones and invalidations are kept, so no change gets lost. Merged
+     * signals are held outside of the queue until the consumer catches up.
+     * Other signals are dropped as by {@link #DROP_OLDEST}, since signals of
+     * the manager share its object path.
+     */
+    COALESCE_BY_OBJECT_PATH
+
+}
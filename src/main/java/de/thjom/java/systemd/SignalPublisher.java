@@ -0,0 +1,211 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.DBusSignal;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publisher of the signals of one type which are handled by an adapter. Each
+ * subscription registers an own signal handler which enqueues signals without
+ * blocking the dispatching thread of dbus-java. Signals are passed to the
+ * subscriber as requested by an executor (the signal executor of the adapter
+ * or the common pool), signals exceeding the queue capacity are merged or
+ * dropped (see {@link AbstractAdapter#getPublisher(Class)}). The stream of
+ * signals never completes.
+ */
+final class SignalPublisher<T extends DBusSignal> implements SignalFlow.Publisher<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(SignalPublisher.class);
+
+    private final AbstractAdapter adapter;
+    private final Class<T> type;
+
+    SignalPublisher(final AbstractAdapter adapter, final Class<T> type) {
+        this.adapter = Objects.requireNonNull(adapter);
+        this.type = Objects.requireNonNull(type);
+    }
+
+    @Override
+    public void subscribe(final SignalFlow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+
+        Executor executor = adapter.getSignalExecutor();
+        Subscription<T> subscription = new Subscription<>(this, subscriber, adapter.newPublisherQueue(type), executor != null ? executor : ForkJoinPool.commonPool());
+
+        subscriber.onSubscribe(subscription);
+
+        try {
+            adapter.addHandler(type, subscription);
+        }
+        catch (final DBusException e) {
+            subscription.cancelled = true;
+            subscriber.onError(e);
+        }
+    }
+
+    private void unsubscribe(final Subscription<T> subscription) {
+        try {
+            adapter.removeHandler(type, subscription);
+        }
+        catch (final DBusException e) {
+            log.warn(String.format("Unable to remove handler of subscription: %s", e.getMessage()));
+        }
+    }
+
+    static final class Subscription<T extends DBusSignal> implements SignalFlow.Subscription, DBusSigHandler<T> {
+
+        private final SignalPublisher<T> publisher;
+        private final SignalFlow.Subscriber<? super T> subscriber;
+        private final SignalQueue<T> queue;
+        private final Executor executor;
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile boolean cancelled = false;
+
+        Subscription(final SignalPublisher<T> publisher, final SignalFlow.Subscriber<? super T> subscriber, final SignalQueue<T> queue, final Executor executor) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            this.queue = queue;
+            this.executor = executor;
+        }
+
+        @Override
+        public void handle(final T signal) {
+            if (!cancelled) {
+                try {
+                    queue.put(signal);
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                schedule();
+            }
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0L) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException(String.format("Non-positive number of requested items: %d", n)));
+
+                return;
+            }
+
+            demand.accumulateAndGet(n, (current, add) -> current + add < 0L ? Long.MAX_VALUE : current + add);
+
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+
+                publisher.unsubscribe(this);
+                schedule();
+            }
+        }
+
+        long getDemand() {
+            return demand.get();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                }
+                catch (final RejectedExecutionException e) {
+                    log.warn(String.format("Unable to deliver signals: %s", e.getMessage()));
+
+                    pending.set(0);
+                }
+            }
+        }
+
+        /**
+         * Passes queued signals to the subscriber while it has demand. Runs
+         * once at a time, requests and signals arriving meanwhile cause another
+         * pass.
+         */
+        private void drain() {
+            int missed = 1;
+
+            do {
+                if (cancelled) {
+                    queue.clear();
+                }
+                else {
+                    deliver();
+                }
+
+                missed = pending.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+
+        private void deliver() {
+            try {
+                while (!cancelled && demand.get() > 0L) {
+                    T signal = queue.poll(0L, TimeUnit.NANOSECONDS);
+
+                    if (signal == null) {
+                        break;
+                    }
+
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+
+                    subscriber.onNext(signal);
+                }
+            }
+            catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (final RuntimeException e) {
+                log.error("Subscriber failed, cancelling subscription", e);
+
+                cancel();
+
+                return;
+            }
+
+            // Signals held back for reordering become available later on
+            if (!cancelled && demand.get() > 0L && queue.size() > 0) {
+                try {
+                    SharedScheduler.get().schedule(this::schedule, Math.max(queue.getReorderWindow(TimeUnit.NANOSECONDS), 1L), TimeUnit.NANOSECONDS);
+                }
+                catch (final RejectedExecutionException e) {
+                    log.warn(String.format("Unable to deliver signals: %s", e.getMessage()));
+                }
+            }
+        }
+
+    }
+
+}
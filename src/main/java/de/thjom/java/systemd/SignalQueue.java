@@ -0,0 +1,78 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.dbus.DBusSignal;
+
+/**
+ * Queue which hands over signals from the dispatching threads of dbus-java to
+ * a single consumer, restoring the sequence of the signals (by serial) on the
+ * way. Any number of threads may put signals, while all other methods must be
+ * invoked by one thread at a time.
+ */
+interface SignalQueue<T extends DBusSignal> {
+
+    long TIMEOUT_INFINITE = -1L;
+
+    void put(final T item) throws InterruptedException;
+
+    /**
+     * Inserts the given signal if the queue is not full.<p>
+     *
+     * @param item The signal.
+     * @return <code>true</code> if the signal was inserted, <code>false</code> if the queue is full.
+     */
+    boolean offer(final T item);
+
+    boolean offer(final T item, final long timeout, final TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Removes the oldest signal which was not yet taken over for reordering.
+     * In contrast to the other consumer methods, this method may be invoked by
+     * producers in order to make room for a new signal.<p>
+     *
+     * @return The removed signal or <code>null</code> if there is none.
+     */
+    T evict();
+
+    T take() throws InterruptedException;
+
+    T poll(final long timeout, final TimeUnit unit) throws InterruptedException;
+
+    int drainTo(final Collection<? super T> drain);
+
+    void clear();
+
+    int size();
+
+    /**
+     * Returns the current reordering window.<p>
+     *
+     * @param unit The time unit of the result.
+     * @return The current reordering window.
+     */
+    long getReorderWindow(final TimeUnit unit);
+
+    long getTransferDelay();
+
+    /**
+     * Sets the maximum time (in milliseconds) a signal is held back for
+     * reordering. The current reordering window is reset to this value.<p>
+     *
+     * @param transferDelay The maximum reordering delay.
+     */
+    void setTransferDelay(final long transferDelay);
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import org.freedesktop.dbus.DBusSignal;
+
+/**
+ * Strategies for handing over signals from the dispatching threads of
+ * dbus-java to signal consumers and listeners.
+ *
+ * @see AbstractAdapter#setSignalQueueStrategy(SignalQueueStrategy)
+ */
+public enum SignalQueueStrategy {
+
+    /**
+     * Lock based queueing. Producers and consumer synchronize on every signal.
+     */
+    BLOCKING,
+
+    /**
+     * Lock-free ring buffer. A waiting consumer is parked until signals arrive.
+     */
+    PARK,
+
+    /**
+     * Lock-free ring buffer. A waiting consumer spins for a short time before
+     * it is parked, which reduces the hand-over latency at the expense of CPU
+     * time.
+     */
+    SPIN_THEN_PARK;
+
+    <T extends DBusSignal> SignalQueue<T> newQueue(final int capacity) {
+        switch (this) {
+            case PARK:
+                return new RingSignalSequencer<>(capacity, false);
+            case SPIN_THEN_PARK:
+                return new RingSignalSequencer<>(capacity, true);
+            default:
+                return new SignalSequencer<>(capacity);
+        }
+    }
+
+}
@@ -23,14 +23,26 @@ import java.util.concurrent.TimeUnit;
 
 import org.freedesktop.dbus.DBusSignal;
 
-final class SignalSequencer<T extends DBusSignal> {
+/**
+ * Restores the sequence of signals which are handed over concurrently by the
+ * worker threads of dbus-java.<p>
+ *
+ * Signals are held back for a reordering window (see {@link ReorderWindow})
+ * after the first signal of a chunk arrived, so that signals with lower serials
+ * dispatched by other worker threads can overtake it. A signal which directly
+ * succeeds the last released one is never held back.<p>
+ *
+ * This is the lock based implementation, see {@link RingSignalSequencer} for
+ * the lock-free one.
+ */
+final class SignalSequencer<T extends DBusSignal> implements SignalQueue<T> {
 
-    public static final long TIMEOUT_INFINITE = -1L;
+    public static final long DEFAULT_TRANSFER_DELAY = 50L;
 
     private final BlockingQueue<T> buffer;
     private final Queue<T> sequencer;
+    private final ReorderWindow window = new ReorderWindow(DEFAULT_TRANSFER_DELAY);
 
-    private long transferDelay = 50L;
     private int transferChunkSize;
     private int dequeueChunkSize;
 
@@ -52,14 +64,32 @@ final class SignalSequencer<T extends DBusSignal> {
         this.dequeueChunkSize = chunkSize > 1 ? chunkSize / 2 : 1;
     }
 
+    @Override
     public void put(final T item) throws InterruptedException {
         buffer.put(item);
     }
 
+    @Override
+    public boolean offer(final T item) {
+        return buffer.offer(item);
+    }
+
+    @Override
+    public boolean offer(final T item, final long timeout, final TimeUnit unit) throws InterruptedException {
+        return buffer.offer(item, timeout, unit);
+    }
+
+    @Override
+    public T evict() {
+        return buffer.poll();
+    }
+
+    @Override
     public T take() throws InterruptedException {
         return poll(TIMEOUT_INFINITE, null);
     }
 
+    @Override
     public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
         T head = null;
 
@@ -85,9 +115,14 @@ final class SignalSequencer<T extends DBusSignal> {
             dequeued++;
         }
 
+        if (head != null) {
+            window.released(head);
+        }
+
         return head;
     }
 
+    @Override
     public int drainTo(final Collection<? super T> drain) {
         List<T> buffered = new ArrayList<>(buffer.size());
         int transferred = buffer.drainTo(buffered);
@@ -101,6 +136,8 @@ final class SignalSequencer<T extends DBusSignal> {
 
             if (head != null) {
                 drain.add(head);
+
+                window.released(head);
             }
         }
         while (head != null);
@@ -108,58 +145,81 @@ final class SignalSequencer<T extends DBusSignal> {
         return transferred;
     }
 
+    @Override
     public void clear() {
         buffer.clear();
         sequencer.clear();
     }
 
+    @Override
     public int size() {
         return buffer.size() + sequencer.size();
     }
 
     private T transfer(final long timeout, final TimeUnit unit, int chunkSize) throws InterruptedException {
-        boolean delayed = false;
+        T head;
 
-        do {
-            T head;
+        if (timeout < 0) {
+            head = buffer.take();
+        }
+        else {
+            head = buffer.poll(timeout, unit);
+        }
 
-            if (timeout < 0) {
-                head = buffer.take();
-            }
-            else {
-                head = buffer.poll(timeout, unit);
-            }
+        if (head == null) {
+            return null;
+        }
 
-            if (head != null) {
-                if (!sequencer.offer(head)) {
-                    return head;
-                }
+        boolean late = window.isLate(head);
+
+        if (!sequencer.offer(head)) {
+            return head;
+        }
+
+        long deadline = System.nanoTime() + (window.isSuccessor(head) ? 0L : window.get(TimeUnit.NANOSECONDS));
 
-                if (!delayed) {
-                    Thread.sleep(transferDelay);
+        while (chunkSize-- > 0) {
+            T next;
+            long remaining = deadline - System.nanoTime();
 
-                    delayed = true;
-                }
+            if (remaining > 0L && !window.isSuccessor(sequencer.peek())) {
+                next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
             }
             else {
+                next = buffer.poll();
+            }
+
+            if (next == null) {
                 break;
             }
+
+            late |= window.isLate(next);
+
+            if (!sequencer.offer(next)) {
+                window.adapt(late);
+
+                return next;
+            }
         }
-        while (!buffer.isEmpty() && chunkSize-- > 0);
+
+        window.adapt(late);
 
         return null;
     }
 
+    @Override
+    public long getReorderWindow(final TimeUnit unit) {
+        return window.get(unit);
+    }
+
+    @Override
     public long getTransferDelay() {
-        return transferDelay;
+        return window.getMaxDelay();
     }
 
+    @Override
     public void setTransferDelay(final long transferDelay) {
-        if (transferDelay < 0L) {
-            throw new IllegalArgumentException();
-        }
-
-        this.transferDelay = transferDelay;
+        window.reset(transferDelay);
     }
 
     public int getTransferChunkSize() {
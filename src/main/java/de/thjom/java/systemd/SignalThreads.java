@@ -0,0 +1,49 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of the threads which consume signals and run blocking calls. This
+ * implementation creates platform (daemon) threads, on Java 21 and later a
+ * variant creating virtual threads is loaded from the multi-release jar.
+ */
+final class SignalThreads {
+
+    private SignalThreads() {
+        // Do nothing (static implementation)
+    }
+
+    static boolean isVirtual() {
+        return false;
+    }
+
+    /**
+     * Creates an unstarted daemon thread running the given task.
+     */
+    static Thread newThread(final Runnable task, final String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    static ExecutorService newCallExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+
+        return Executors.newCachedThreadPool(r -> newThread(r, String.format("%s-call-%d", Systemd.class.getSimpleName(), counter.incrementAndGet())));
+    }
+
+}
@@ -37,7 +37,7 @@ public class Snapshot extends Unit {
     private Snapshot(final Manager manager, final SnapshotInterface iface, final String name) throws DBusException {
         super(manager, iface, name);
 
-        this.properties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.properties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
     }
 
     static Snapshot create(final Manager manager, String name) throws DBusException {
@@ -0,0 +1,216 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.Variant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the property changes of an object path which are announced within a
+ * time window after the first change, so that a burst of
+ * <code>PropertiesChanged</code> signals (e.g. during a unit restart) is
+ * delivered as a single change map. Later values replace earlier ones and
+ * invalidated properties are removed. The {@link SharedScheduler} only closes
+ * the windows, merged changes are delivered one after another by the given
+ * executor (or a shared pool of daemon threads).
+ */
+final class StateCoalescer {
+
+    private final Logger log = LoggerFactory.getLogger(StateCoalescer.class);
+
+    private final long window;
+    private final BiConsumer<String, Map<String, Variant<?>>> sink;
+    private final Executor executor;
+
+    private final Map<String, Map<String, Variant<?>>> pending = new HashMap<>();
+    private final Deque<String> ready = new ArrayDeque<>();
+    private final AtomicBoolean delivering = new AtomicBoolean();
+
+    private long received = 0L;
+    private long delivered = 0L;
+
+    StateCoalescer(final long window, final TimeUnit unit, final BiConsumer<String, Map<String, Variant<?>>> sink) {
+        this(window, unit, sink, null);
+    }
+
+    StateCoalescer(final long window, final TimeUnit unit, final BiConsumer<String, Map<String, Variant<?>>> sink, final Executor executor) {
+        if (window <= 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.window = unit.toNanos(window);
+        this.sink = Objects.requireNonNull(sink);
+        this.executor = executor != null ? executor : Delivery.EXECUTOR;
+    }
+
+    void submit(final PropertiesChanged signal) {
+        String path = signal.getPath();
+        boolean first = false;
+
+        synchronized (pending) {
+            Map<String, Variant<?>> merged = pending.get(path);
+
+            if (merged == null) {
+                merged = new HashMap<>();
+                pending.put(path, merged);
+
+                first = true;
+            }
+
+            if (signal.changedProperties != null) {
+                merged.putAll(signal.changedProperties);
+            }
+
+            if (signal.invalidatedProperties != null) {
+                signal.invalidatedProperties.forEach(merged::remove);
+            }
+
+            received++;
+        }
+
+        if (first) {
+            try {
+                SharedScheduler.get().schedule(() -> release(path), window, TimeUnit.NANOSECONDS);
+            }
+            catch (final RejectedExecutionException e) {
+                flush(path);
+            }
+        }
+    }
+
+    private void release(final String path) {
+        synchronized (pending) {
+            ready.add(path);
+        }
+
+        scheduleDelivery();
+    }
+
+    private void scheduleDelivery() {
+        if (delivering.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::deliver);
+            }
+            catch (final RejectedExecutionException e) {
+                log.warn("Executor rejected delivery of coalesced state changes, delivering in caller thread");
+
+                deliver();
+            }
+        }
+    }
+
+    private void deliver() {
+        try {
+            String path;
+
+            while ((path = nextReady()) != null) {
+                flush(path);
+            }
+        }
+        finally {
+            delivering.set(false);
+        }
+
+        boolean more;
+
+        synchronized (pending) {
+            more = !ready.isEmpty();
+        }
+
+        if (more) {
+            scheduleDelivery();
+        }
+    }
+
+    private String nextReady() {
+        synchronized (pending) {
+            return ready.poll();
+        }
+    }
+
+    void flush(final String path) {
+        Map<String, Variant<?>> merged;
+
+        synchronized (pending) {
+            merged = pending.remove(path);
+
+            if (merged != null) {
+                delivered++;
+            }
+        }
+
+        if (merged != null) {
+            sink.accept(path, Collections.unmodifiableMap(merged));
+        }
+    }
+
+    /**
+     * Delivers all pending changes immediately.
+     */
+    void flush() {
+        List<String> paths;
+
+        synchronized (pending) {
+            paths = new ArrayList<>(pending.keySet());
+        }
+
+        paths.forEach(this::flush);
+    }
+
+    void clear() {
+        synchronized (pending) {
+            pending.clear();
+            ready.clear();
+        }
+    }
+
+    /**
+     * Returns the number of submitted signals.
+     */
+    long getReceived() {
+        synchronized (pending) {
+            return received;
+        }
+    }
+
+    /**
+     * Returns the number of delivered change maps.
+     */
+    long getDelivered() {
+        synchronized (pending) {
+            return delivered;
+        }
+    }
+
+    private static final class Delivery {
+
+        private static final Executor EXECUTOR = SignalThreads.newCallExecutor();
+
+    }
+
+}
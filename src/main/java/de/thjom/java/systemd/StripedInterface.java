@@ -0,0 +1,82 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.freedesktop.dbus.DBusConnection;
+import org.freedesktop.dbus.DBusInterface;
+import org.freedesktop.dbus.exceptions.DBusException;
+
+/**
+ * Remote proxies of a single object on every connection of a
+ * {@link ConnectionPool}. Proxies are imported lazily and imported again if
+ * the pool replaced a lost connection.
+ */
+final class StripedInterface {
+
+    static final class Stripe {
+
+        final DBusConnection connection;
+        final DBusInterface remote;
+
+        Stripe(final DBusConnection connection, final DBusInterface remote) {
+            this.connection = connection;
+            this.remote = remote;
+        }
+
+    }
+
+    private final ConnectionPool pool;
+    private final String objectPath;
+    private final Class<? extends DBusInterface> type;
+
+    private final AtomicReferenceArray<Stripe> stripes;
+
+    StripedInterface(final ConnectionPool pool, final String objectPath, final Class<? extends DBusInterface> type) {
+        this.pool = Objects.requireNonNull(pool);
+        this.objectPath = Objects.requireNonNull(objectPath);
+        this.type = Objects.requireNonNull(type);
+        this.stripes = new AtomicReferenceArray<>(pool.size());
+    }
+
+    ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the proxy on the next connection of the pool.<p>
+     *
+     * @return The next stripe.
+     * @throws DBusException If the next connection is unavailable or the object cannot be imported.
+     */
+    Stripe next() throws DBusException {
+        int index = pool.nextIndex();
+
+        DBusConnection connection = pool.get(index);
+
+        if (connection == null) {
+            throw new DBusException(String.format("Pooled connection %d is unavailable", index));
+        }
+
+        Stripe stripe = stripes.get(index);
+
+        if (stripe == null || stripe.connection != connection) {
+            stripe = new Stripe(connection, connection.getRemoteObject(Systemd.SERVICE_NAME, objectPath, type));
+            stripes.set(index, stripe);
+        }
+
+        return stripe;
+    }
+
+}
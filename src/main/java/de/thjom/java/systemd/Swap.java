@@ -142,7 +142,7 @@ public class Swap extends Unit implements DynamicUserAccounting, IpAccounting, U
     private Swap(final Manager manager, final SwapInterface iface, final String name) throws DBusException {
         super(manager, iface, name);
 
-        this.properties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.properties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
     }
 
     static Swap create(final Manager manager, String name) throws DBusException {
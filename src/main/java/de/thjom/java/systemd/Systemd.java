@@ -14,11 +14,14 @@ package de.thjom.java.systemd;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Optional;
-import java.util.regex.Matcher;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
-import javax.xml.bind.DatatypeConverter;
-
+import org.freedesktop.DBus;
 import org.freedesktop.dbus.DBusConnection;
 import org.freedesktop.dbus.exceptions.DBusException;
 import org.freedesktop.dbus.exceptions.NotConnected;
@@ -52,6 +55,10 @@ public final class Systemd {
     public static final String SERVICE_NAME = "org.freedesktop.systemd1";
     public static final String OBJECT_PATH = "/org/freedesktop/systemd1";
 
+    /**
+     * @deprecated Escaping is table-driven and does not use this pattern anymore.
+     */
+    @Deprecated
     public static final Pattern PATH_ESCAPE_PATTERN = Pattern.compile("(\\W)");
 
     public static final long DEFAULT_RETARDATION = 50L;
@@ -62,8 +69,14 @@ public final class Systemd {
 
     private final InstanceType instanceType;
 
-    private DBusConnection dbus;
-    private Manager manager;
+    private volatile DBusConnection dbus;
+    private volatile Manager manager;
+
+    private volatile ConnectionPool connectionPool;
+
+    private ScheduledExecutorService supervisor;
+    private volatile String serviceOwner;
+    private volatile boolean rebindPending;
 
     private Systemd() {
         this(InstanceType.SYSTEM);
@@ -73,19 +86,31 @@ public final class Systemd {
         this.instanceType = instanceType;
     }
 
+    /**
+     * Escapes a unit name for use as element of an object path, e.g.
+     * <code>cronie.service</code> becomes <code>cronie_2eservice</code>.<p>
+     *
+     * @param path The name to escape.
+     * @return The escaped name or an empty string if <code>null</code> was given.
+     */
     public static final String escapePath(final CharSequence path) {
         if (path != null) {
-            StringBuffer escaped = new StringBuffer(path.length());
-            Matcher matcher = PATH_ESCAPE_PATTERN.matcher(path);
-
-            while (matcher.find()) {
-                String replacement = '_' + Integer.toHexString((int) matcher.group().charAt(0));
-                matcher.appendReplacement(escaped, replacement);
-            }
+            return PathCodec.escape(path);
+        }
 
-            matcher.appendTail(escaped);
+        return "";
+    }
 
-            return escaped.toString();
+    /**
+     * Reverses {@link #escapePath(CharSequence)}, e.g. <code>cronie_2eservice</code>
+     * becomes <code>cronie.service</code>.<p>
+     *
+     * @param path The escaped name.
+     * @return The unescaped name or an empty string if <code>null</code> was given.
+     */
+    public static final String unescapePath(final CharSequence path) {
+        if (path != null) {
+            return PathCodec.unescape(path);
         }
 
         return "";
@@ -96,7 +121,46 @@ public final class Systemd {
     }
 
     public static final String id128ToString(final byte[] id128) {
-        return DatatypeConverter.printHexBinary(id128).toLowerCase();
+        StringBuilder hex = new StringBuilder(id128.length * 2);
+
+        for (byte b : id128) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return hex.toString();
+    }
+
+    /**
+     * Creates a fixed pool of daemon threads suitable for dispatching signals
+     * of many consumers (see {@link Manager#setSignalExecutor(java.util.concurrent.Executor)}).<p>
+     *
+     * @param threads The number of threads.
+     * @return The executor service (to be shut down by the caller).
+     */
+    public static ExecutorService newSignalExecutor(final int threads) {
+        AtomicInteger counter = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, String.format("%s-%d", SignalConsumer.class.getSimpleName(), counter.incrementAndGet()));
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /**
+     * Creates an executor suitable for blocking D-Bus calls (e.g. property
+     * reads of many units). On Java 21 and later every task runs on an own
+     * virtual thread, otherwise on a cached pool of daemon threads. Signal
+     * consumers without an explicit executor (see
+     * {@link Manager#setSignalExecutor(java.util.concurrent.Executor)}) run on
+     * virtual threads as well in that case.<p>
+     *
+     * @return The executor service (to be shut down by the caller).
+     */
+    public static ExecutorService newCallExecutor() {
+        return SignalThreads.newCallExecutor();
     }
 
     public static Systemd get() throws DBusException {
@@ -191,6 +255,9 @@ public final class Systemd {
     }
 
     private void close(final long retardationTime) throws InterruptedException {
+        stopSupervision();
+        closeConnectionPool();
+
         if (isConnected()) {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Disconnecting from %s bus", instanceType));
@@ -205,6 +272,179 @@ public final class Systemd {
         manager = null;
     }
 
+    /**
+     * Opens a pool of additional connections to the bus. Method calls of the
+     * manager and of unit adapters obtained from it are striped across the
+     * pooled connections, so a slow call (e.g. {@link Manager#dump()}) does not
+     * delay other calls. Signals are still received on the primary connection
+     * only. An existing pool is replaced.<p>
+     *
+     * @param size The number of pooled connections.
+     * @throws DBusException If a connection cannot be opened.
+     */
+    public synchronized void openConnectionPool(final int size) throws DBusException {
+        if (!isConnected()) {
+            throw new DBusException("Unable to open connection pool without bus (please connect first)");
+        }
+
+        ConnectionPool update = ConnectionPool.open(instanceType, size);
+        ConnectionPool stale = connectionPool;
+
+        connectionPool = update;
+
+        if (manager != null) {
+            manager.setConnectionPool(update);
+        }
+
+        if (stale != null) {
+            stale.close();
+        }
+    }
+
+    public synchronized void closeConnectionPool() {
+        ConnectionPool stale = connectionPool;
+
+        if (stale != null) {
+            connectionPool = null;
+
+            if (manager != null) {
+                manager.setConnectionPool(null);
+            }
+
+            stale.close();
+        }
+    }
+
+    public boolean isConnectionPoolOpen() {
+        return connectionPool != null;
+    }
+
+    /**
+     * Starts supervision of the bus connection. The connection is checked
+     * periodically and re-established after it was lost. In that case, and
+     * also if systemd was re-executed (and thus owns a new unique bus name),
+     * the manager is bound again (see {@link Manager}), i.e. its subscription
+     * and all signal handlers and consumers are restored and monitors with
+     * default handlers are refreshed. Failed attempts are repeated with
+     * exponential backoff.<p>
+     *
+     * Unit adapters obtained before a reconnect stay usable if they are cached
+     * by the manager or have signal handlers registered; other adapters should
+     * be obtained again.
+     *
+     * @param period The period of connection checks.
+     * @param maxBackoff The maximum delay between failed reconnection attempts.
+     * @param unit The time unit of both delays.
+     */
+    public synchronized void startSupervision(final long period, final long maxBackoff, final TimeUnit unit) {
+        if (period <= 0L || maxBackoff < period) {
+            throw new IllegalArgumentException();
+        }
+
+        stopSupervision();
+
+        supervisor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, String.format("%s-supervisor-%s", getClass().getSimpleName(), instanceType));
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        long periodMillis = unit.toMillis(period);
+        long maxBackoffMillis = unit.toMillis(maxBackoff);
+
+        supervisor.schedule(() -> supervise(supervisor, periodMillis, maxBackoffMillis, periodMillis), periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopSupervision() {
+        if (supervisor != null) {
+            supervisor.shutdownNow();
+            supervisor = null;
+        }
+    }
+
+    public synchronized boolean isSupervised() {
+        return supervisor != null;
+    }
+
+    private void supervise(final ScheduledExecutorService executor, final long period, final long maxBackoff, final long backoff) {
+        long delay = period;
+
+        try {
+            check();
+        }
+        catch (final DBusException | RuntimeException e) {
+            delay = Math.min(backoff * 2, maxBackoff);
+
+            log.warn(String.format("Unable to recover connection to %s bus (next attempt in %d ms): %s", instanceType, delay, e.getMessage()));
+        }
+
+        if (!executor.isShutdown()) {
+            long nextBackoff = delay;
+
+            executor.schedule(() -> supervise(executor, period, maxBackoff, nextBackoff), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void check() throws DBusException {
+        if (supervisor == null) {
+            return;
+        }
+
+        if (!isConnected()) {
+            log.warn(String.format("Connection to %s bus lost, reconnecting", instanceType));
+
+            DBusConnection stale = dbus;
+
+            if (stale != null) {
+                dbus = null;
+
+                try {
+                    stale.disconnect();
+                }
+                catch (final RuntimeException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Unable to release stale connection to %s bus", instanceType), e);
+                    }
+                }
+            }
+
+            open();
+
+            serviceOwner = null;
+            rebindPending = manager != null;
+        }
+
+        ConnectionPool pool = connectionPool;
+
+        if (pool != null && !pool.isConnected()) {
+            log.warn(String.format("Pooled connection to %s bus lost, reconnecting", instanceType));
+
+            pool.restore();
+        }
+
+        DBus bus = dbus.getRemoteObject("org.freedesktop.DBus", "/org/freedesktop/DBus", DBus.class);
+        String owner = bus.GetNameOwner(SERVICE_NAME);
+
+        if (serviceOwner != null && !serviceOwner.equals(owner)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Owner of '%s' changed from %s to %s", SERVICE_NAME, serviceOwner, owner));
+            }
+
+            rebindPending = manager != null;
+        }
+
+        serviceOwner = owner;
+
+        if (rebindPending) {
+            manager.rebind(dbus);
+
+            rebindPending = false;
+
+            log.info(String.format("Restored manager on %s bus", instanceType));
+        }
+    }
+
     public boolean isConnected() {
         return !(dbus == null || dbus.getError() instanceof NotConnected);
     }
@@ -213,7 +453,7 @@ public final class Systemd {
         return Optional.ofNullable(dbus);
     }
 
-    public Manager getManager() throws DBusException {
+    public synchronized Manager getManager() throws DBusException {
         if (manager == null) {
             if (!isConnected()) {
                 throw new DBusException("Unable to create manager without bus (please connect first)");
@@ -224,6 +464,10 @@ public final class Systemd {
             }
 
             manager = Manager.create(dbus);
+
+            if (connectionPool != null) {
+                manager.setConnectionPool(connectionPool);
+            }
         }
 
         return manager;
@@ -37,7 +37,7 @@ public class Target extends Unit {
     private Target(final Manager manager, final TargetInterface iface, final String name) throws DBusException {
         super(manager, iface, name);
 
-        this.properties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.properties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
     }
 
     static Target create(final Manager manager, String name) throws DBusException {
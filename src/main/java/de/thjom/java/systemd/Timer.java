@@ -54,7 +54,7 @@ public class Timer extends Unit {
     private Timer(final Manager manager, final TimerInterface iface, final String name) throws DBusException {
         super(manager, iface, name);
 
-        this.properties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.properties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
     }
 
     static Timer create(final Manager manager, String name) throws DBusException {
@@ -19,9 +19,11 @@ import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
 import org.freedesktop.DBus.Introspectable;
 import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusConnection;
 import org.freedesktop.dbus.DBusSigHandler;
 import org.freedesktop.dbus.DBusSignal;
 import org.freedesktop.dbus.Path;
@@ -182,6 +184,7 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
     protected final Manager manager;
 
     private final Properties unitProperties;
+    private final DBusSigHandler<PropertiesChanged> stateRoute = this::handleStateSignal;
 
     protected Unit(final Manager manager, final UnitInterface iface, final String name) throws DBusException {
         super(manager.dbus, iface);
@@ -189,7 +192,15 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         this.name = name;
         this.manager = manager;
 
-        this.unitProperties = Properties.create(dbus, iface.getObjectPath(), SERVICE_NAME);
+        this.unitProperties = Properties.create(manager, iface.getObjectPath(), SERVICE_NAME);
+
+        inheritSignalSettings(manager);
+
+        ConnectionPool pool = manager.getConnectionPool();
+
+        if (pool != null) {
+            super.stripe(pool);
+        }
     }
 
     public static String normalizeName(final String name, final String suffix) {
@@ -210,6 +221,27 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return normalized;
     }
 
+    /**
+     * Returns the object path of the given unit (inverse of {@link #extractName(String)}).<p>
+     *
+     * @param name The full unit name.
+     * @return The object path.
+     */
+    public static String toObjectPath(final String name) {
+        return OBJECT_PATH + Systemd.escapePath(name);
+    }
+
+    /**
+     * Returns the unescaped unit name of the given object path, e.g.
+     * <code>cronie.service</code>.<p>
+     *
+     * @param objectPath The object path of a unit.
+     * @return The full unit name or an empty string if the path is not a unit path.
+     */
+    public static String extractUnitName(final String objectPath) {
+        return Systemd.unescapePath(extractName(objectPath));
+    }
+
     public static String extractName(final String objectPath) {
         String name;
 
@@ -238,6 +270,21 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return unitProperties;
     }
 
+    /**
+     * Captures all properties of this unit (i.e. the properties of the
+     * {@link UnitInterface} and of the type specific interface) with a single
+     * D-Bus call. All values of the returned snapshot originate from the same
+     * instant.<p>
+     *
+     * @return An immutable snapshot of the unit properties.
+     */
+    public UnitSnapshot snapshot() {
+        // An empty interface name makes systemd return the properties of all interfaces
+        Map<String, Variant<?>> values = unitProperties.getInterface().getAllProperties("");
+
+        return new UnitSnapshot(name, getObjectPath(), values);
+    }
+
     public boolean isAssignableFrom(final String objectPath) {
         return extractName(objectPath).equals(Systemd.escapePath(name));
     }
@@ -245,27 +292,56 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
     @Override
     public <T extends DBusSignal> void addHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException {
         manager.subscribe();
-        dbus.addSigHandler(type, getInterface(), handler);
+        registerHandler(type, handler, true);
+        manager.bindUnit(this);
     }
 
     @Override
     public <T extends DBusSignal> void removeHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException {
         if (handler != null) {
-            dbus.removeSigHandler(type, getInterface(), handler);
+            unregisterHandler(type, handler, true);
+
+            if (!hasRegisteredHandlers() && unitStateListeners.isEmpty()) {
+                manager.unbindUnit(this);
+            }
         }
     }
 
+    /**
+     * Unit state listeners are served by the demultiplexer of the manager,
+     * which dispatches the signals of all watched units from a single handler.
+     */
     @Override
-    protected SignalConsumer<PropertiesChanged> createStateConsumer() {
-        return new SignalConsumer<>(s -> {
-            Map<String, Variant<?>> properties = s.changedProperties;
-
-            if (properties.containsKey(ACTIVE_STATE) || properties.containsKey(LOAD_STATE) || properties.containsKey(SUB_STATE)) {
-                synchronized (unitStateListeners) {
-                    unitStateListeners.forEach(l -> l.stateChanged(Unit.this, properties));
-                }
-            }
-        });
+    protected void startStateHandling() throws DBusException {
+        manager.addPropertiesRoute(this, stateRoute);
+    }
+
+    @Override
+    protected void stopStateHandling() throws DBusException {
+        manager.removePropertiesRoute(this, stateRoute);
+
+        if (!hasRegisteredHandlers()) {
+            manager.unbindUnit(this);
+        }
+    }
+
+    @Override
+    void rebind(final DBusConnection update) throws DBusException {
+        super.rebind(update);
+
+        unitProperties.rebind(update);
+    }
+
+    @Override
+    void stripe(final ConnectionPool pool) {
+        super.stripe(pool);
+
+        unitProperties.stripe(pool);
+    }
+
+    @Override
+    protected Unit resolveStateUnit(final String objectPath) {
+        return this;
     }
 
     public String introspect() throws DBusException {
@@ -282,6 +358,14 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return manager.startUnit(name, mode);
     }
 
+    public CompletableFuture<Path> startAsync(final Mode mode) {
+        return startAsync(mode.getValue());
+    }
+
+    public CompletableFuture<Path> startAsync(final String mode) {
+        return manager.startUnitAsync(name, mode);
+    }
+
     public Path stop(final Mode mode) {
         return stop(mode.getValue());
     }
@@ -290,6 +374,14 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return manager.stopUnit(name, mode);
     }
 
+    public CompletableFuture<Path> stopAsync(final Mode mode) {
+        return stopAsync(mode.getValue());
+    }
+
+    public CompletableFuture<Path> stopAsync(final String mode) {
+        return manager.stopUnitAsync(name, mode);
+    }
+
     public Path reload(final Mode mode) {
         return reload(mode.getValue());
     }
@@ -298,6 +390,14 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return manager.reloadUnit(name, mode);
     }
 
+    public CompletableFuture<Path> reloadAsync(final Mode mode) {
+        return reloadAsync(mode.getValue());
+    }
+
+    public CompletableFuture<Path> reloadAsync(final String mode) {
+        return manager.reloadUnitAsync(name, mode);
+    }
+
     public Path restart(final Mode mode) {
         return restart(mode.getValue());
     }
@@ -306,6 +406,14 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return manager.restartUnit(name, mode);
     }
 
+    public CompletableFuture<Path> restartAsync(final Mode mode) {
+        return restartAsync(mode.getValue());
+    }
+
+    public CompletableFuture<Path> restartAsync(final String mode) {
+        return manager.restartUnitAsync(name, mode);
+    }
+
     public Path tryRestart(final Mode mode) {
         return tryRestart(mode.getValue());
     }
@@ -314,6 +422,14 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return manager.tryRestartUnit(name, mode);
     }
 
+    public CompletableFuture<Path> tryRestartAsync(final Mode mode) {
+        return tryRestartAsync(mode.getValue());
+    }
+
+    public CompletableFuture<Path> tryRestartAsync(final String mode) {
+        return manager.tryRestartUnitAsync(name, mode);
+    }
+
     public Path reloadOrRestart(final Mode mode) {
         return reloadOrRestart(mode.getValue());
     }
@@ -322,6 +438,14 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return manager.reloadOrRestartUnit(name, mode);
     }
 
+    public CompletableFuture<Path> reloadOrRestartAsync(final Mode mode) {
+        return reloadOrRestartAsync(mode.getValue());
+    }
+
+    public CompletableFuture<Path> reloadOrRestartAsync(final String mode) {
+        return manager.reloadOrRestartUnitAsync(name, mode);
+    }
+
     public Path reloadOrTryRestart(final Mode mode) {
         return reloadOrTryRestart(mode.getValue());
     }
@@ -330,6 +454,14 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         return manager.reloadOrTryRestartUnit(name, mode);
     }
 
+    public CompletableFuture<Path> reloadOrTryRestartAsync(final Mode mode) {
+        return reloadOrTryRestartAsync(mode.getValue());
+    }
+
+    public CompletableFuture<Path> reloadOrTryRestartAsync(final String mode) {
+        return manager.reloadOrTryRestartUnitAsync(name, mode);
+    }
+
     public void kill(final Who who, final int signal) {
         kill(who.getValue(), signal);
     }
@@ -342,6 +474,10 @@ public abstract class Unit extends InterfaceAdapter implements UnitStateNotifier
         manager.resetFailedUnit(name);
     }
 
+    public CompletableFuture<Void> resetFailedAsync() {
+        return manager.resetFailedUnitAsync(name);
+    }
+
     public void unref() {
         manager.unrefUnit(name);
     }
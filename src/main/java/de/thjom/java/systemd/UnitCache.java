@@ -0,0 +1,125 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.exceptions.DBusException;
+
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitRemoved;
+
+/**
+ * Bounded cache of unit adapters keyed by full unit name. The least recently
+ * used adapter is evicted once the capacity is exceeded. Adapters of units
+ * announced as removed by systemd are dropped.
+ */
+final class UnitCache implements DBusSigHandler<UnitRemoved> {
+
+    @FunctionalInterface
+    interface Factory<T extends Unit> {
+
+        T create() throws DBusException;
+
+    }
+
+    private final int capacity;
+    private final Map<String, Unit> units;
+
+    UnitCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.capacity = capacity;
+        this.units = new LinkedHashMap<String, Unit>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Unit> eldest) {
+                return size() > UnitCache.this.capacity;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the cached adapter of the given unit if it is of the requested
+     * type, otherwise a new adapter is created by the factory and cached.
+     * The factory is invoked without holding a lock, so concurrent lookups of
+     * an uncached unit may create more than one adapter but only the first one
+     * is kept.
+     */
+    <T extends Unit> T get(final String name, final Class<T> type, final Factory<T> factory) throws DBusException {
+        Unit unit;
+
+        synchronized (units) {
+            unit = units.get(name);
+        }
+
+        if (type.isInstance(unit)) {
+            return type.cast(unit);
+        }
+
+        T created = factory.create();
+
+        synchronized (units) {
+            unit = units.get(name);
+
+            if (type.isInstance(unit)) {
+                return type.cast(unit);
+            }
+
+            units.put(name, created);
+        }
+
+        return created;
+    }
+
+    List<Unit> values() {
+        synchronized (units) {
+            return new ArrayList<>(units.values());
+        }
+    }
+
+    void remove(final String name) {
+        synchronized (units) {
+            units.remove(name);
+        }
+    }
+
+    void clear() {
+        synchronized (units) {
+            units.clear();
+        }
+    }
+
+    int size() {
+        synchronized (units) {
+            return units.size();
+        }
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void handle(final UnitRemoved signal) {
+        remove(signal.getId());
+    }
+
+}
@@ -11,25 +11,36 @@
 
 package de.thjom.java.systemd;
 
-import static de.thjom.java.systemd.Unit.Property.ACTIVE_STATE;
-import static de.thjom.java.systemd.Unit.Property.LOAD_STATE;
-import static de.thjom.java.systemd.Unit.Property.SUB_STATE;
-
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-import org.freedesktop.DBus.Properties.PropertiesChanged;
 import org.freedesktop.dbus.DBusSigHandler;
 import org.freedesktop.dbus.DBusSignal;
-import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.exceptions.DBusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,20 +52,41 @@ abstract class UnitMonitor extends AbstractAdapter implements UnitStateNotifier
 
     protected static final String ERROR_MSG_MONITOR_REFRESH = "Error while refreshing internal monitor state";
 
+    public static final long DEFAULT_REFRESH_TIMEOUT = 10000L;
+    public static final double DEFAULT_POLLING_JITTER = 0.1;
+
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
     protected final Manager manager;
-    protected final ConcurrentMap<String, Unit> monitoredUnits = new ConcurrentHashMap<>();
 
-    protected final List<UnitMonitorListener> unitMonitorListeners = new ArrayList<>();
+    protected final List<UnitMonitorListener> unitMonitorListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Write-through view on the monitored units keyed by escaped unit name.
+     * Each modification is applied as a single update (see
+     * {@link #updateMonitoredUnits(Consumer)}).<p>
+     *
+     * @deprecated Use {@link #getMonitoredUnitMap()} and {@link #updateMonitoredUnits(Consumer)} instead.
+     */
+    @Deprecated
+    protected final ConcurrentMap<String, Unit> monitoredUnits = new MonitoredUnitView();
 
     protected ReloadingHandler reloadingHandler;
     protected UnitFilesChangedHandler unitFilesChangedHandler;
 
-    private Timer pollingTimer;
+    private final Object updateLock = new Object();
+
+    private volatile Map<String, Unit> currentUnits = Collections.emptyMap();
+    private volatile int refreshConcurrency = 1;
+    private volatile long refreshTimeout = DEFAULT_REFRESH_TIMEOUT;
+    private volatile double pollingJitter = DEFAULT_POLLING_JITTER;
+    private Poller poller;
+    private ExecutorService callExecutor;
 
     protected UnitMonitor(final Manager manager) {
         this.manager = Objects.requireNonNull(manager);
+
+        inheritSignalSettings(manager);
     }
 
     @Override
@@ -76,28 +108,20 @@ abstract class UnitMonitor extends AbstractAdapter implements UnitStateNotifier
 
         unitFilesChangedHandler = new UnitFilesChangedHandler();
         manager.addConsumer(UnitFilesChanged.class, unitFilesChangedHandler);
+
+        manager.bindMonitor(this);
     }
 
     public void removeDefaultHandlers() throws DBusException {
+        manager.unbindMonitor(this);
+
         manager.removeConsumer(Reloading.class, reloadingHandler);
         manager.removeConsumer(UnitFilesChanged.class, unitFilesChangedHandler);
     }
 
     @Override
-    protected SignalConsumer<PropertiesChanged> createStateConsumer() {
-        return new SignalConsumer<>(s -> {
-            Optional<Unit> unit = getMonitoredUnit(Unit.extractName(s.getPath()));
-
-            if (unit.isPresent()) {
-                Map<String, Variant<?>> properties = s.changedProperties;
-
-                if (properties.containsKey(ACTIVE_STATE) || properties.containsKey(LOAD_STATE) || properties.containsKey(SUB_STATE)) {
-                    synchronized (unitStateListeners) {
-                        unitStateListeners.forEach(l -> l.stateChanged(unit.get(), properties));
-                    }
-                }
-            }
-        });
+    protected Unit resolveStateUnit(final String objectPath) {
+        return getMonitoredUnit(Unit.extractName(objectPath)).orElse(null);
     }
 
     public synchronized void addListener(final UnitMonitorListener listener) {
@@ -112,49 +136,437 @@ abstract class UnitMonitor extends AbstractAdapter implements UnitStateNotifier
 
     public abstract void refresh() throws DBusException;
 
-    public synchronized void startPolling(final long delay, final long period) {
-        TimerTask task = new TimerTask() {
-
-            @Override
-            public void run() {
-                try {
-                    refresh();
-                }
-                catch (final DBusException e) {
-                    log.error(ERROR_MSG_MONITOR_REFRESH, e);
-                }
-            }
-
-        };
+    /**
+     * Called once systemd finished a reload or its unit files changed. The
+     * monitor is refreshed by default.<p>
+     *
+     * @throws DBusException If the monitor cannot be refreshed.
+     */
+    protected void reloaded() throws DBusException {
+        refresh();
+    }
 
-        if (pollingTimer != null) {
-            pollingTimer.cancel();
+    /**
+     * Starts refreshing the monitor periodically. Refreshes run on a shared
+     * executor and never overlap: a tick is skipped while the previous refresh
+     * is in flight. The period is randomized by the polling jitter and
+     * stretched if refreshing takes a considerable part of it. Failed
+     * refreshes are logged and do not stop the polling.<p>
+     *
+     * @param delay The delay in milliseconds before the first refresh.
+     * @param period The minimum period in milliseconds between refreshes.
+     */
+    public synchronized void startPolling(final long delay, final long period) {
+        if (poller != null) {
+            poller.cancel();
         }
 
-        pollingTimer = createTimer();
-        pollingTimer.schedule(task, delay, period);
+        poller = new Poller(getClass().getSimpleName(), this::refresh, period, pollingJitter);
+        poller.start(delay);
     }
 
+    /**
+     * Stops refreshing the monitor periodically and releases the threads used
+     * for concurrent unit resolution. They are created again on demand.
+     */
     public synchronized void stopPolling() {
-        if (pollingTimer != null) {
-            pollingTimer.cancel();
+        if (poller != null) {
+            poller.cancel();
+            poller = null;
+        }
+
+        if (callExecutor != null) {
+            callExecutor.shutdown();
+            callExecutor = null;
         }
     }
 
+    public synchronized boolean isPolling() {
+        return poller != null;
+    }
+
+    /**
+     * Creates the timer formerly used for polling.<p>
+     *
+     * @return A new daemon timer.
+     * @deprecated Polling runs on a shared executor, the returned timer is not used anymore.
+     */
+    @Deprecated
     protected Timer createTimer() {
         return new Timer(getClass().getSimpleName() + "-pollingTimer", true);
     }
 
+    public double getPollingJitter() {
+        return pollingJitter;
+    }
+
+    /**
+     * Sets the fraction of the period by which each polling delay is randomly
+     * shortened or lengthened. Takes effect on the next start of polling.<p>
+     *
+     * @param pollingJitter The jitter in the range [0, 1).
+     */
+    public void setPollingJitter(final double pollingJitter) {
+        if (pollingJitter < 0.0 || pollingJitter >= 1.0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.pollingJitter = pollingJitter;
+    }
+
+    public int getRefreshConcurrency() {
+        return refreshConcurrency;
+    }
+
+    /**
+     * Sets the number of units which are resolved concurrently on refresh. The
+     * default of one resolves units serially without validating them.<p>
+     *
+     * With a higher concurrency each unit is resolved and validated (by reading
+     * its ID) by a call of its own, which is abandoned after the refresh
+     * timeout. Units which fail or time out retain their previous adapter or
+     * are left out until the next refresh.<p>
+     *
+     * @param refreshConcurrency The maximum number of concurrent resolutions.
+     */
+    public void setRefreshConcurrency(final int refreshConcurrency) {
+        if (refreshConcurrency <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.refreshConcurrency = refreshConcurrency;
+    }
+
+    public long getRefreshTimeout() {
+        return refreshTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds after which the concurrent resolution of
+     * a single unit is abandoned.<p>
+     *
+     * @param refreshTimeout The timeout per unit in milliseconds.
+     */
+    public void setRefreshTimeout(final long refreshTimeout) {
+        if (refreshTimeout <= 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.refreshTimeout = refreshTimeout;
+    }
+
     public boolean monitorsUnit(final String unitName) {
-        return monitoredUnits.containsKey(Systemd.escapePath(unitName));
+        return currentUnits.containsKey(Systemd.escapePath(unitName));
     }
 
     public Optional<Unit> getMonitoredUnit(final String unitName) {
-        return Optional.ofNullable(monitoredUnits.get(Systemd.escapePath(unitName)));
+        return Optional.ofNullable(currentUnits.get(Systemd.escapePath(unitName)));
     }
 
+    /**
+     * Returns the monitored units. The returned collection is an immutable
+     * snapshot, which is not affected by later refreshes.<p>
+     *
+     * @return The monitored units.
+     */
     public Collection<Unit> getMonitoredUnits() {
-        return monitoredUnits.values();
+        return currentUnits.values();
+    }
+
+    /**
+     * Returns the immutable map of monitored units keyed by escaped unit name.
+     */
+    protected Map<String, Unit> getMonitoredUnitMap() {
+        return currentUnits;
+    }
+
+    /**
+     * Applies the given modification to a copy of the monitored units, which
+     * then replaces them in a single step. Monitor listeners are notified
+     * about added, removed and replaced units.<p>
+     *
+     * @param update The modification of the map keyed by escaped unit name.
+     * @return <code>true</code> if the monitored units differ afterwards.
+     */
+    protected boolean updateMonitoredUnits(final Consumer<Map<String, Unit>> update) {
+        synchronized (updateLock) {
+            Map<String, Unit> previous = currentUnits;
+            Map<String, Unit> next = new HashMap<>(previous);
+
+            update.accept(next);
+
+            List<Unit> added = new ArrayList<>();
+            List<Unit> removed = new ArrayList<>();
+            List<Unit> replaced = new ArrayList<>();
+
+            for (Map.Entry<String, Unit> entry : next.entrySet()) {
+                Unit known = previous.get(entry.getKey());
+
+                if (known == null) {
+                    added.add(entry.getValue());
+                }
+                else if (known != entry.getValue()) {
+                    replaced.add(entry.getValue());
+                }
+            }
+
+            for (Map.Entry<String, Unit> entry : previous.entrySet()) {
+                if (!next.containsKey(entry.getKey())) {
+                    removed.add(entry.getValue());
+                }
+            }
+
+            if (added.isEmpty() && removed.isEmpty() && replaced.isEmpty()) {
+                return false;
+            }
+
+            currentUnits = Collections.unmodifiableMap(next);
+
+            for (UnitMonitorListener listener : unitMonitorListeners) {
+                listener.monitorChanged(Collections.unmodifiableList(added), Collections.unmodifiableList(removed), Collections.unmodifiableList(replaced));
+            }
+
+            return true;
+        }
+    }
+
+    protected boolean replaceMonitoredUnits(final Map<String, Unit> units) {
+        return updateMonitoredUnits(m -> {
+            m.clear();
+            m.putAll(units);
+        });
+    }
+
+    /**
+     * Applies the result of a refresh which started while the given units were
+     * monitored. Units which were added, removed or replaced since (e.g. by
+     * signal handlers) keep their current state, since the refresh may not
+     * have observed these changes.<p>
+     *
+     * @param previous The monitored units at the start of the refresh.
+     * @param units The units found by the refresh keyed by escaped unit name.
+     * @return <code>true</code> if the monitored units differ afterwards.
+     */
+    protected boolean reconcileMonitoredUnits(final Map<String, Unit> previous, final Map<String, Unit> units) {
+        return updateMonitoredUnits(m -> {
+            Set<String> keys = new HashSet<>(previous.keySet());
+            keys.addAll(units.keySet());
+
+            for (String key : keys) {
+                if (m.get(key) != previous.get(key)) {
+                    continue;
+                }
+
+                Unit unit = units.get(key);
+
+                if (unit != null) {
+                    m.put(key, unit);
+                }
+                else {
+                    m.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the adapter of the given unit from the given map of previously
+     * monitored units or a new one if it is unknown or bound to a former
+     * connection.
+     */
+    protected Unit lookupUnit(final Map<String, Unit> previous, final String unitName) throws DBusException {
+        Unit known = previous.get(Systemd.escapePath(unitName));
+
+        if (known != null && known.dbus == manager.dbus) {
+            return known;
+        }
+
+        return manager.getUnit(unitName);
+    }
+
+    /**
+     * Resolves the given units according to the refresh concurrency and returns
+     * them keyed by escaped unit name. Adapters are reused from the given map
+     * of previously monitored units (see {@link #lookupUnit(Map, String)}).<p>
+     *
+     * @param unitNames The full names of the units to resolve.
+     * @param previous The previously monitored units keyed by escaped name.
+     * @return The resolved units.
+     * @throws DBusException If a unit cannot be resolved in serial mode.
+     */
+    protected Map<String, Unit> resolveUnits(final Collection<String> unitNames, final Map<String, Unit> previous) throws DBusException {
+        Map<String, Unit> units = new HashMap<>();
+        int concurrency = refreshConcurrency;
+
+        if (concurrency <= 1 || unitNames.size() <= 1) {
+            for (String unitName : unitNames) {
+                units.put(Systemd.escapePath(unitName), lookupUnit(previous, unitName));
+            }
+
+            return units;
+        }
+
+        long timeout = refreshTimeout;
+
+        ExecutorService executor = getCallExecutor();
+        Semaphore permits = new Semaphore(concurrency);
+        Map<String, Future<Unit>> resolutions = new LinkedHashMap<>();
+        List<ScheduledFuture<?>> expirations = new ArrayList<>();
+
+        try {
+            for (String unitName : unitNames) {
+                permits.acquire();
+
+                AtomicBoolean released = new AtomicBoolean();
+                Runnable release = () -> {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                };
+
+                Future<Unit> resolution = executor.submit(() -> {
+                    try {
+                        Unit unit = lookupUnit(previous, unitName);
+                        unit.getId();
+
+                        return unit;
+                    }
+                    finally {
+                        release.run();
+                    }
+                });
+
+                // A hung call must neither stall the refresh nor hold its permit
+                expirations.add(SharedScheduler.get().schedule(() -> {
+                    if (resolution.cancel(true)) {
+                        release.run();
+                    }
+                }, timeout, TimeUnit.MILLISECONDS));
+
+                resolutions.put(unitName, resolution);
+            }
+
+            for (Map.Entry<String, Future<Unit>> entry : resolutions.entrySet()) {
+                String unitName = entry.getKey();
+                String escapedName = Systemd.escapePath(unitName);
+
+                try {
+                    units.put(escapedName, entry.getValue().get());
+                }
+                catch (final CancellationException e) {
+                    log.warn(String.format("Resolution of unit '%s' timed out after %d ms", unitName, timeout));
+                }
+                catch (final ExecutionException e) {
+                    log.warn(String.format("Unable to resolve unit '%s'", unitName), e.getCause());
+                }
+
+                Unit known = previous.get(escapedName);
+
+                if (known != null) {
+                    units.putIfAbsent(escapedName, known);
+                }
+            }
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new DBusException("Interrupted while resolving units");
+        }
+        catch (final RejectedExecutionException e) {
+            resolutions.values().forEach(f -> f.cancel(true));
+
+            throw new DBusException("Monitor stopped while resolving units");
+        }
+        finally {
+            expirations.forEach(f -> f.cancel(false));
+        }
+
+        return units;
+    }
+
+    private synchronized ExecutorService getCallExecutor() {
+        if (callExecutor == null) {
+            callExecutor = SignalThreads.newCallExecutor();
+        }
+
+        return callExecutor;
+    }
+
+    protected void notifyMonitorRefreshed() {
+        Collection<Unit> units = getMonitoredUnits();
+
+        unitMonitorListeners.forEach(l -> l.monitorRefreshed(units));
+    }
+
+    private final class MonitoredUnitView extends AbstractMap<String, Unit> implements ConcurrentMap<String, Unit> {
+
+        @Override
+        public Set<Map.Entry<String, Unit>> entrySet() {
+            return currentUnits.entrySet();
+        }
+
+        @Override
+        public Unit get(final Object key) {
+            return currentUnits.get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return currentUnits.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return currentUnits.size();
+        }
+
+        @Override
+        public Unit put(final String key, final Unit value) {
+            return apply(m -> m.put(key, Objects.requireNonNull(value)));
+        }
+
+        @Override
+        public Unit remove(final Object key) {
+            return apply(m -> m.remove(key));
+        }
+
+        @Override
+        public void putAll(final Map<? extends String, ? extends Unit> map) {
+            updateMonitoredUnits(m -> m.putAll(map));
+        }
+
+        @Override
+        public void clear() {
+            replaceMonitoredUnits(Collections.emptyMap());
+        }
+
+        @Override
+        public Unit putIfAbsent(final String key, final Unit value) {
+            return apply(m -> m.putIfAbsent(key, Objects.requireNonNull(value)));
+        }
+
+        @Override
+        public boolean remove(final Object key, final Object value) {
+            return apply(m -> m.remove(key, value));
+        }
+
+        @Override
+        public boolean replace(final String key, final Unit oldValue, final Unit newValue) {
+            return apply(m -> m.replace(key, oldValue, Objects.requireNonNull(newValue)));
+        }
+
+        @Override
+        public Unit replace(final String key, final Unit value) {
+            return apply(m -> m.replace(key, Objects.requireNonNull(value)));
+        }
+
+        private <R> R apply(final Function<Map<String, Unit>, R> modification) {
+            AtomicReference<R> result = new AtomicReference<>();
+            updateMonitoredUnits(m -> result.set(modification.apply(m)));
+
+            return result.get();
+        }
+
     }
 
     public class ReloadingHandler implements DBusSigHandler<Reloading> {
@@ -172,7 +584,7 @@ abstract class UnitMonitor extends AbstractAdapter implements UnitStateNotifier
                 }
 
                 try {
-                    refresh();
+                    reloaded();
                 }
                 catch (final DBusException e) {
                     log.error(ERROR_MSG_MONITOR_REFRESH, e);
@@ -191,7 +603,7 @@ abstract class UnitMonitor extends AbstractAdapter implements UnitStateNotifier
             }
 
             try {
-                refresh();
+                reloaded();
             }
             catch (final DBusException e) {
                 log.error(ERROR_MSG_MONITOR_REFRESH, e);
@@ -18,4 +18,19 @@ public interface UnitMonitorListener {
 
     void monitorRefreshed(final Collection<Unit> monitoredUnits);
 
+    /**
+     * Called whenever the set of monitored units changes (by a refresh or
+     * otherwise) with the differences to the previous set only. Replaced units
+     * are still monitored, but by a new adapter object (e.g. after a
+     * reconnect). Changes of unit properties or states are not reported here,
+     * see {@link UnitStateListener} for these.<p>
+     *
+     * @param added The newly monitored units.
+     * @param removed The units which are no longer monitored.
+     * @param replaced The new adapters of units which are still monitored.
+     */
+    default void monitorChanged(final Collection<Unit> added, final Collection<Unit> removed, final Collection<Unit> replaced) {
+        // Default behavior (ignore differences)
+    }
+
 }
@@ -11,82 +11,223 @@
 
 package de.thjom.java.systemd;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.DBusSignal;
 import org.freedesktop.dbus.exceptions.DBusException;
 
+/**
+ * Monitor of units given by name. Property changes are subscribed for each
+ * monitored unit, so that the bus only forwards signals of these units.
+ */
 public class UnitNameMonitor extends UnitMonitor {
 
     protected final Set<String> monitoredNames = new HashSet<>();
 
+    private final Set<String> escapedNames = ConcurrentHashMap.newKeySet();
+
+    private final List<DBusSigHandler<PropertiesChanged>> stateHandlers = new ArrayList<>();
+    private final Map<String, Unit> subscribedUnits = new HashMap<>();
+
     public UnitNameMonitor(final Manager manager) {
         super(manager);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends DBusSignal> void addHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException {
+        if (type == PropertiesChanged.class) {
+            DBusSigHandler<PropertiesChanged> stateHandler = (DBusSigHandler<PropertiesChanged>) handler;
+
+            synchronized (this) {
+                for (Unit unit : subscribedUnits.values()) {
+                    unit.addHandler(PropertiesChanged.class, stateHandler);
+                }
+
+                stateHandlers.add(stateHandler);
+
+                updateSubscriptions();
+            }
+        }
+        else {
+            super.addHandler(type, handler);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends DBusSignal> void removeHandler(final Class<T> type, final DBusSigHandler<T> handler) throws DBusException {
+        if (type == PropertiesChanged.class) {
+            DBusSigHandler<PropertiesChanged> stateHandler = (DBusSigHandler<PropertiesChanged>) handler;
+
+            synchronized (this) {
+                if (stateHandlers.remove(stateHandler)) {
+                    for (Unit unit : subscribedUnits.values()) {
+                        unit.removeHandler(PropertiesChanged.class, stateHandler);
+                    }
+                }
+
+                if (stateHandlers.isEmpty()) {
+                    subscribedUnits.clear();
+                }
+            }
+        }
+        else {
+            super.removeHandler(type, handler);
+        }
+    }
+
     @Override
     public synchronized void reset() {
         monitoredNames.clear();
-        monitoredUnits.clear();
+        escapedNames.clear();
+
+        replaceMonitoredUnits(Collections.emptyMap());
+        updateSubscriptions();
     }
 
     @Override
     public synchronized void refresh() throws DBusException {
         try {
-            monitoredUnits.clear();
-
-            for (String unitName : monitoredNames) {
-                monitoredUnits.put(Systemd.escapePath(unitName), manager.getUnit(unitName));
-            }
+            replaceMonitoredUnits(resolveUnits(monitoredNames, getMonitoredUnitMap()));
         }
         finally {
-            unitMonitorListeners.forEach(l -> l.monitorRefreshed(monitoredUnits.values()));
+            updateSubscriptions();
+            notifyMonitorRefreshed();
         }
     }
 
     public synchronized void addUnits(final String... fullUnitNames) throws DBusException {
-        for (String unitName : fullUnitNames) {
-            monitoredNames.add(unitName);
-            monitoredUnits.put(Systemd.escapePath(unitName), manager.getUnit(unitName));
+        Map<String, Unit> units = new HashMap<>();
+
+        try {
+            if (getRefreshConcurrency() > 1) {
+                for (String unitName : fullUnitNames) {
+                    monitoredNames.add(unitName);
+                    escapedNames.add(Systemd.escapePath(unitName));
+                }
+
+                units.putAll(resolveUnits(Arrays.asList(fullUnitNames), getMonitoredUnitMap()));
+            }
+            else {
+                for (String unitName : fullUnitNames) {
+                    String escapedName = Systemd.escapePath(unitName);
+
+                    monitoredNames.add(unitName);
+                    escapedNames.add(escapedName);
+                    units.put(escapedName, manager.getUnit(unitName));
+                }
+            }
+        }
+        finally {
+            updateMonitoredUnits(m -> m.putAll(units));
+            updateSubscriptions();
         }
     }
 
     public synchronized void addUnits(final Unit... units) {
+        Map<String, Unit> added = new HashMap<>();
+
         for (Unit unit : units) {
+            String escapedName = Systemd.escapePath(unit.getId());
+
             monitoredNames.add(unit.getId());
-            monitoredUnits.put(Systemd.escapePath(unit.getId()), unit);
+            escapedNames.add(escapedName);
+            added.put(escapedName, unit);
         }
+
+        updateMonitoredUnits(m -> m.putAll(added));
+        updateSubscriptions();
     }
 
     public synchronized void removeUnits(final String... fullUnitNames) {
+        Set<String> removed = new HashSet<>();
+
         for (String unitName : fullUnitNames) {
+            String escapedName = Systemd.escapePath(unitName);
+
             monitoredNames.remove(unitName);
-            monitoredUnits.remove(Systemd.escapePath(unitName));
+            escapedNames.remove(escapedName);
+            removed.add(escapedName);
         }
+
+        updateMonitoredUnits(m -> m.keySet().removeAll(removed));
+        updateSubscriptions();
     }
 
     public synchronized void removeUnits(final Unit... units) {
+        Set<String> removed = new HashSet<>();
+
         for (Unit unit : units) {
+            String escapedName = Systemd.escapePath(unit.getId());
+
             monitoredNames.remove(unit.getId());
-            monitoredUnits.remove(Systemd.escapePath(unit.getId()));
+            escapedNames.remove(escapedName);
+            removed.add(escapedName);
         }
+
+        updateMonitoredUnits(m -> m.keySet().removeAll(removed));
+        updateSubscriptions();
     }
 
     @Override
     public boolean monitorsUnit(final String unitName) {
-        boolean monitored = super.monitorsUnit(unitName);
-
-        if (!monitored) {
-            for (String monitoredName : monitoredNames) {
-                if (Systemd.escapePath(monitoredName).equals(unitName)) {
-                    monitored = true;
+        return super.monitorsUnit(unitName) || escapedNames.contains(unitName);
+    }
 
-                    break;
+    /**
+     * Moves the registered state handlers from units which are no longer
+     * monitored to newly monitored ones. Failures are logged, the affected
+     * unit is subscribed again on the next update.
+     */
+    private void updateSubscriptions() {
+        Map<String, Unit> monitoredUnits = getMonitoredUnitMap();
+        Iterator<Map.Entry<String, Unit>> subscribed = subscribedUnits.entrySet().iterator();
+
+        while (subscribed.hasNext()) {
+            Map.Entry<String, Unit> entry = subscribed.next();
+
+            if (monitoredUnits.get(entry.getKey()) != entry.getValue()) {
+                subscribed.remove();
+
+                for (DBusSigHandler<PropertiesChanged> handler : stateHandlers) {
+                    try {
+                        entry.getValue().removeHandler(PropertiesChanged.class, handler);
+                    }
+                    catch (final DBusException e) {
+                        log.warn(String.format("Unable to unsubscribe property changes of '%s'", entry.getKey()), e);
+                    }
                 }
             }
         }
 
-        return monitored;
+        if (!stateHandlers.isEmpty()) {
+            for (Map.Entry<String, Unit> entry : monitoredUnits.entrySet()) {
+                if (!subscribedUnits.containsKey(entry.getKey())) {
+                    try {
+                        for (DBusSigHandler<PropertiesChanged> handler : stateHandlers) {
+                            entry.getValue().addHandler(PropertiesChanged.class, handler);
+                        }
+
+                        subscribedUnits.put(entry.getKey(), entry.getValue());
+                    }
+                    catch (final DBusException e) {
+                        log.warn(String.format("Unable to subscribe property changes of '%s'", entry.getKey()), e);
+                    }
+                }
+            }
+        }
     }
 
 }
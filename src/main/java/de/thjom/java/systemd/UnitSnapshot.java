@@ -0,0 +1,234 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.freedesktop.dbus.UInt64;
+import org.freedesktop.dbus.Variant;
+
+import de.thjom.java.systemd.types.Condition;
+import de.thjom.java.systemd.types.Job;
+import de.thjom.java.systemd.types.LoadError;
+
+/**
+ * Immutable point-in-time view on all properties of a unit, captured by a
+ * single <code>GetAll</code> call (see {@link Unit#snapshot()}). The snapshot
+ * covers the generic unit interface as well as the type specific interface
+ * (e.g. {@link Service}), so subtype properties are available via their
+ * property name constants, e.g. <code>getLong(Service.Property.MAIN_PID)</code>.<p>
+ *
+ * Raw values are decoded lazily on first access and memoized, hence typed
+ * getters are cheap on repeated access. Instances are safe to share between
+ * threads.
+ */
+public final class UnitSnapshot {
+
+    private final String name;
+    private final String objectPath;
+    private final long timestamp;
+    private final Map<String, Variant<?>> properties;
+
+    private volatile ConcurrentMap<String, Object> decoded;
+
+    UnitSnapshot(final String name, final String objectPath, final Map<String, Variant<?>> properties) {
+        this.name = Objects.requireNonNull(name);
+        this.objectPath = objectPath;
+        this.timestamp = System.currentTimeMillis();
+        this.properties = properties != null ? Collections.unmodifiableMap(new HashMap<>(properties)) : Collections.emptyMap();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getObjectPath() {
+        return objectPath;
+    }
+
+    /**
+     * Returns the time of capture in milliseconds since the epoch.<p>
+     *
+     * @return The capture timestamp.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Set<String> getPropertyNames() {
+        return properties.keySet();
+    }
+
+    public boolean hasProperty(final String propertyName) {
+        return properties.containsKey(propertyName);
+    }
+
+    public Variant<?> getVariant(final String propertyName) {
+        return properties.get(propertyName);
+    }
+
+    /**
+     * Returns the value of the given property as decoded by the given function.
+     * The decoded value is memoized, so the decoder is invoked at most once per
+     * property (if not invoked concurrently).<p>
+     *
+     * @param propertyName The name of the property.
+     * @param decoder Function which converts the raw value to the requested type.
+     * @return The decoded value.
+     * @throws NoSuchElementException If the property is not part of this snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final String propertyName, final Function<Object, T> decoder) {
+        ConcurrentMap<String, Object> memo = decoded;
+
+        if (memo == null) {
+            synchronized (this) {
+                memo = decoded;
+
+                if (memo == null) {
+                    memo = new ConcurrentHashMap<>(8);
+                    decoded = memo;
+                }
+            }
+        }
+
+        Object value = memo.get(propertyName);
+
+        if (value == null) {
+            Variant<?> variant = properties.get(propertyName);
+
+            if (variant == null) {
+                throw new NoSuchElementException(String.format("Property '%s' not captured in snapshot of '%s'", propertyName, name));
+            }
+
+            value = decoder.apply(variant.getValue());
+
+            if (value != null) {
+                Object previous = memo.putIfAbsent(propertyName, value);
+
+                if (previous != null) {
+                    value = previous;
+                }
+            }
+        }
+
+        return (T) value;
+    }
+
+    public boolean getBoolean(final String propertyName) {
+        Boolean value = get(propertyName, Boolean.class::cast);
+
+        return value.booleanValue();
+    }
+
+    public byte getByte(final String propertyName) {
+        Byte value = get(propertyName, Byte.class::cast);
+
+        return value.byteValue();
+    }
+
+    public short getShort(final String propertyName) {
+        Number value = get(propertyName, Number.class::cast);
+
+        return value.shortValue();
+    }
+
+    public int getInteger(final String propertyName) {
+        Number value = get(propertyName, Number.class::cast);
+
+        return value.intValue();
+    }
+
+    public long getLong(final String propertyName) {
+        Number value = get(propertyName, Number.class::cast);
+
+        return value.longValue();
+    }
+
+    public BigInteger getBigInteger(final String propertyName) {
+        return get(propertyName, v -> ((UInt64) v).value());
+    }
+
+    public double getDouble(final String propertyName) {
+        Number value = get(propertyName, Number.class::cast);
+
+        return value.doubleValue();
+    }
+
+    public String getString(final String propertyName) {
+        return get(propertyName, String::valueOf);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getList(final String propertyName) {
+        return get(propertyName, v -> Collections.unmodifiableList(new Vector<>((Vector<T>) v)));
+    }
+
+    public String getId() {
+        return getString(Unit.Property.ID);
+    }
+
+    public String getDescription() {
+        return getString(Unit.Property.DESCRIPTION);
+    }
+
+    public String getLoadState() {
+        return getString(Unit.Property.LOAD_STATE);
+    }
+
+    public String getActiveState() {
+        return getString(Unit.Property.ACTIVE_STATE);
+    }
+
+    public String getSubState() {
+        return getString(Unit.Property.SUB_STATE);
+    }
+
+    public Unit.StateTuple getStateTuple() {
+        return Unit.StateTuple.of(properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Condition> getAsserts() {
+        return get(Unit.Property.ASSERTS, v -> Collections.unmodifiableList(Condition.list((Vector<Object[]>) v)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Condition> getConditions() {
+        return get(Unit.Property.CONDITIONS, v -> Collections.unmodifiableList(Condition.list((Vector<Object[]>) v)));
+    }
+
+    public Job getJob() {
+        return get(Unit.Property.JOB, v -> new Job((Object[]) v));
+    }
+
+    public LoadError getLoadError() {
+        return get(Unit.Property.LOAD_ERROR, v -> new LoadError((Object[]) v));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UnitSnapshot [name=%s, timestamp=%d, properties=%d]", name, timestamp, properties.size());
+    }
+
+}
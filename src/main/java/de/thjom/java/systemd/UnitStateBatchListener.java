@@ -0,0 +1,33 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.List;
+
+/**
+ * Listener which receives unit state changes in batches, e.g. in order to
+ * pass them on to a downstream store in bulk.
+ *
+ * @see AbstractAdapter#addBatchListener(UnitStateBatchListener, int, long)
+ */
+@FunctionalInterface
+public interface UnitStateBatchListener {
+
+    /**
+     * Invoked with a batch of state changes, in the sequence of the underlying
+     * signals. Batches are never empty.<p>
+     *
+     * @param events The state changes.
+     */
+    void stateChanged(final List<UnitStateEvent> events);
+
+}
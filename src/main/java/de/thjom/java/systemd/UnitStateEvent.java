@@ -0,0 +1,45 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.freedesktop.dbus.Variant;
+
+/**
+ * State change of a unit as delivered to a {@link UnitStateBatchListener}.
+ */
+public final class UnitStateEvent {
+
+    private final Unit unit;
+    private final Map<String, Variant<?>> changedProperties;
+
+    public UnitStateEvent(final Unit unit, final Map<String, Variant<?>> changedProperties) {
+        this.unit = Objects.requireNonNull(unit);
+        this.changedProperties = Objects.requireNonNull(changedProperties);
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public Map<String, Variant<?>> getChangedProperties() {
+        return changedProperties;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UnitStateEvent [unit=%s, changedProperties=%s]", unit.getObjectPath(), changedProperties);
+    }
+
+}
@@ -11,10 +11,19 @@
 
 package de.thjom.java.systemd;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.DBusSignal;
 import org.freedesktop.dbus.exceptions.DBusException;
 
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitNew;
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitRemoved;
 import de.thjom.java.systemd.types.UnitType;
 
 public class UnitTypeMonitor extends UnitMonitor {
@@ -37,6 +46,12 @@ public class UnitTypeMonitor extends UnitMonitor {
 
     protected final EnumSet<MonitoredType> monitoredTypes = EnumSet.noneOf(MonitoredType.class);
 
+    private ForwardingHandler<DBusSignal> unitChangeForwarder;
+    private DBusSigHandler<UnitNew> unitNewHandler;
+    private DBusSigHandler<UnitRemoved> unitRemovedHandler;
+
+    private volatile boolean incremental = false;
+
     public UnitTypeMonitor(final Manager manager) {
         super(manager);
     }
@@ -98,30 +113,165 @@ public class UnitTypeMonitor extends UnitMonitor {
         return monitored;
     }
 
+    protected boolean isIncluded(final String unitName) {
+        for (MonitoredType type : monitoredTypes) {
+            if (unitName.endsWith('.' + type.name().toLowerCase())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @Override
     public synchronized void reset() {
         monitoredTypes.clear();
-        monitoredUnits.clear();
+
+        replaceMonitoredUnits(Collections.emptyMap());
     }
 
     @Override
     public synchronized void refresh() throws DBusException {
         try {
-            monitoredUnits.clear();
+            Map<String, Unit> previous = getMonitoredUnitMap();
+            Map<String, Unit> units = new HashMap<>();
 
-            for (UnitType unit : manager.listUnits()) {
+            for (UnitType unit : listIncludedUnits()) {
                 if (isIncluded(unit)) {
                     String name = unit.getUnitName();
 
-                    monitoredUnits.put(Systemd.escapePath(name), manager.getUnit(name));
+                    // Adapters of units which are still loaded are kept
+                    units.put(Systemd.escapePath(name), lookupUnit(previous, name));
                 }
             }
+
+            // Changes applied by signal handlers meanwhile take precedence
+            reconcileMonitoredUnits(previous, units);
         }
         finally {
-            unitMonitorListeners.forEach(l -> l.monitorRefreshed(monitoredUnits.values()));
+            notifyMonitorRefreshed();
+        }
+    }
+
+    /**
+     * Maintains the monitored units incrementally from now on. After a full
+     * refresh, units are added and removed as announced by the
+     * <code>UnitNew</code> and <code>UnitRemoved</code> signals of systemd, so
+     * reloads and unit file changes do not cause full refreshes any more.
+     * Changes missed meanwhile (e.g. during a reconnect) are caught up by
+     * full refreshes at the given period, which replace any polling started
+     * before.<p>
+     *
+     * @param reconciliationPeriod The period (in milliseconds) of full refreshes (0 disables them).
+     * @throws DBusException If the signal handlers cannot be registered or the refresh fails.
+     */
+    public synchronized void startIncremental(final long reconciliationPeriod) throws DBusException {
+        if (reconciliationPeriod < 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        if (!incremental) {
+            // Both signal types share a sequenced queue, so their order is kept
+            unitChangeForwarder = new ForwardingHandler<>(new SignalConsumer<>(newSignalQueue(), this::handleUnitChange), getSignalExecutor());
+            unitChangeForwarder.startConsumer();
+
+            unitNewHandler = unitChangeForwarder::handle;
+            unitRemovedHandler = unitChangeForwarder::handle;
+
+            manager.subscribe();
+            manager.addHandler(UnitNew.class, unitNewHandler);
+            manager.addHandler(UnitRemoved.class, unitRemovedHandler);
+
+            incremental = true;
+        }
+
+        refresh();
+
+        if (reconciliationPeriod > 0L) {
+            startPolling(reconciliationPeriod, reconciliationPeriod);
+        }
+        else {
+            stopPolling();
         }
     }
 
+    public synchronized void stopIncremental() throws DBusException {
+        if (incremental) {
+            incremental = false;
+
+            stopPolling();
+
+            manager.removeHandler(UnitNew.class, unitNewHandler);
+            manager.removeHandler(UnitRemoved.class, unitRemovedHandler);
+
+            unitChangeForwarder.stopConsumer();
+            unitChangeForwarder = null;
+        }
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    @Override
+    protected void reloaded() throws DBusException {
+        if (!incremental) {
+            refresh();
+        }
+    }
+
+    private void handleUnitChange(final DBusSignal signal) {
+        if (signal instanceof UnitNew) {
+            handleUnitNew((UnitNew) signal);
+        }
+        else if (signal instanceof UnitRemoved) {
+            handleUnitRemoved((UnitRemoved) signal);
+        }
+    }
+
+    private void handleUnitNew(final UnitNew signal) {
+        String name = signal.getId();
+        String key = Systemd.escapePath(name);
+
+        if (isIncluded(name) && !getMonitoredUnitMap().containsKey(key)) {
+            try {
+                Unit unit = manager.getUnit(name);
+
+                if (updateMonitoredUnits(m -> m.putIfAbsent(key, unit))) {
+                    notifyMonitorRefreshed();
+                }
+            }
+            catch (final DBusException e) {
+                log.error(String.format("Unable to add unit '%s' to monitor", name), e);
+            }
+        }
+    }
+
+    private void handleUnitRemoved(final UnitRemoved signal) {
+        String key = Systemd.escapePath(signal.getId());
+
+        if (updateMonitoredUnits(m -> m.remove(key))) {
+            notifyMonitorRefreshed();
+        }
+    }
+
+    /**
+     * Lists the units of the monitored types, filtered by systemd.
+     */
+    private List<UnitType> listIncludedUnits() {
+        List<String> patterns = new ArrayList<>();
+
+        for (MonitoredType type : monitoredTypes) {
+            patterns.add("*." + type.name().toLowerCase());
+        }
+
+        if (patterns.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return manager.listUnitsByPatterns(Collections.emptyList(), patterns);
+    }
+
     public final void addMonitoredTypes(final MonitoredType... monitoredTypes) throws DBusException {
         for (MonitoredType monitoredType : monitoredTypes) {
             this.monitoredTypes.add(monitoredType);
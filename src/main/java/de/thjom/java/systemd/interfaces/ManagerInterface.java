@@ -53,6 +53,15 @@ public interface ManagerInterface extends DBusInterface {
     @DBusMemberName(value = "ListUnits")
     List<UnitType> listUnits();
 
+    @DBusMemberName(value = "ListUnitsByNames")
+    List<UnitType> listUnitsByNames(final List<String> names);
+
+    @DBusMemberName(value = "ListUnitsByPatterns")
+    List<UnitType> listUnitsByPatterns(final List<String> states, final List<String> patterns);
+
+    @DBusMemberName(value = "ListUnitsFiltered")
+    List<UnitType> listUnitsFiltered(final List<String> states);
+
     @DBusMemberName(value = "LookupDynamicUserByName")
     long lookupDynamicUserByName(final String name);
 
@@ -0,0 +1,43 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory of the threads which consume signals and run blocking calls. This
+ * variant (Java 21 and later) creates virtual threads, so that each consumer
+ * may keep its own thread regardless of the number of watched units.
+ */
+final class SignalThreads {
+
+    private SignalThreads() {
+        // Do nothing (static implementation)
+    }
+
+    static boolean isVirtual() {
+        return true;
+    }
+
+    /**
+     * Creates an unstarted virtual thread running the given task.
+     */
+    static Thread newThread(final Runnable task, final String name) {
+        return Thread.ofVirtual().name(name).unstarted(task);
+    }
+
+    static ExecutorService newCallExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(Systemd.class.getSimpleName() + "-call-", 1L).factory());
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.freedesktop.dbus.DBusConnection;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.freedesktop.dbus.exceptions.NotConnected;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.thjom.java.systemd.interfaces.ManagerInterface;
+import de.thjom.java.systemd.interfaces.PropertyInterface;
+
+public class ConnectionPoolTest {
+
+    private static final String ADDRESS = "unix:path=/run/dbus/system_bus_socket";
+
+    @Test(description="Tests striping of method calls across pooled connections.")
+    public void testStriping() throws DBusException {
+        List<String> addresses = new ArrayList<>();
+        List<DBusConnection> pooled = new ArrayList<>();
+
+        ConnectionPool pool = ConnectionPool.open(ADDRESS, 3, address -> {
+            addresses.add(address);
+            pooled.add(mockConnection());
+
+            return pooled.get(pooled.size() - 1);
+        });
+
+        Assert.assertEquals(addresses, Arrays.asList(ConnectionPool.stripeAddress(ADDRESS, 0), ConnectionPool.stripeAddress(ADDRESS, 1), ConnectionPool.stripeAddress(ADDRESS, 2)));
+        Assert.assertTrue(pool.isConnected());
+
+        DBusConnection primary = mockConnection();
+        Manager manager = Manager.create(primary);
+        manager.setConnectionPool(pool);
+
+        for (int i = 0; i < 6; i++) {
+            manager.listUnitsAsync();
+        }
+
+        // Every connection serves every third call, the primary one none
+        for (DBusConnection connection : pooled) {
+            Mockito.verify(connection, Mockito.times(2)).callWithCallback(Mockito.any(), Mockito.eq("listUnits"), Mockito.any());
+            Mockito.verify(connection, Mockito.times(1)).getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class);
+        }
+
+        Mockito.verify(primary, Mockito.never()).callWithCallback(Mockito.any(), Mockito.eq("listUnits"), Mockito.any());
+
+        manager.setConnectionPool(null);
+        manager.listUnitsAsync();
+
+        Mockito.verify(primary, Mockito.times(1)).callWithCallback(Mockito.any(), Mockito.eq("listUnits"), Mockito.any());
+
+        pool.close();
+
+        for (DBusConnection connection : pooled) {
+            Mockito.verify(connection).disconnect();
+        }
+    }
+
+    @Test(description="Tests restoring of a lost pooled connection.")
+    public void testRestore() throws DBusException {
+        List<DBusConnection> pooled = new ArrayList<>();
+
+        ConnectionPool pool = ConnectionPool.open(ADDRESS, 2, address -> {
+            pooled.add(mockConnection());
+
+            return pooled.get(pooled.size() - 1);
+        });
+
+        Manager manager = Manager.create(mockConnection());
+        manager.setConnectionPool(pool);
+
+        manager.listUnitsAsync();
+        manager.listUnitsAsync();
+
+        DBusConnection lost = pooled.get(1);
+        Mockito.when(lost.getError()).thenReturn(new NotConnected("Disconnected"));
+
+        Assert.assertFalse(pool.isConnected());
+
+        pool.restore();
+
+        Assert.assertTrue(pool.isConnected());
+        Assert.assertEquals(pooled.size(), 3);
+        Assert.assertSame(pool.get(0), pooled.get(0));
+        Assert.assertSame(pool.get(1), pooled.get(2));
+
+        Mockito.verify(lost).disconnect();
+        Mockito.verify(pooled.get(0), Mockito.never()).disconnect();
+
+        manager.listUnitsAsync();
+        manager.listUnitsAsync();
+
+        // Proxy is imported again on the replacement connection only
+        DBusConnection restored = pooled.get(2);
+
+        Mockito.verify(lost, Mockito.times(1)).callWithCallback(Mockito.any(), Mockito.eq("listUnits"), Mockito.any());
+        Mockito.verify(restored, Mockito.times(1)).callWithCallback(Mockito.any(), Mockito.eq("listUnits"), Mockito.any());
+        Mockito.verify(restored, Mockito.times(1)).getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class);
+        Mockito.verify(pooled.get(0), Mockito.times(2)).callWithCallback(Mockito.any(), Mockito.eq("listUnits"), Mockito.any());
+        Mockito.verify(pooled.get(0), Mockito.times(1)).getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class);
+    }
+
+    @Test(description="Tests that a pool is not opened partially.")
+    public void testOpenFailure() {
+        List<DBusConnection> pooled = new ArrayList<>();
+
+        try {
+            ConnectionPool.open(ADDRESS, 3, address -> {
+                if (pooled.size() == 2) {
+                    throw new DBusException("Connection refused");
+                }
+
+                pooled.add(mockConnection());
+
+                return pooled.get(pooled.size() - 1);
+            });
+
+            Assert.fail("Expected failure");
+        }
+        catch (DBusException e) {
+            Assert.assertEquals(e.getMessage(), "Connection refused");
+        }
+
+        for (DBusConnection connection : pooled) {
+            Mockito.verify(connection).disconnect();
+        }
+    }
+
+    private static DBusConnection mockConnection() throws DBusException {
+        DBusConnection connection = Mockito.mock(DBusConnection.class);
+        ManagerInterface iface = Mockito.mock(ManagerInterface.class);
+        PropertyInterface piface = Mockito.mock(PropertyInterface.class);
+
+        Mockito.when(iface.getObjectPath()).thenReturn(Systemd.OBJECT_PATH);
+        Mockito.when(piface.getObjectPath()).thenReturn(Systemd.OBJECT_PATH);
+        Mockito.when(connection.getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class)).thenReturn(iface);
+        Mockito.when(connection.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.any(), Mockito.eq(PropertyInterface.class))).thenReturn(piface);
+
+        return connection;
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.dbus.DBusInterface;
+import org.freedesktop.dbus.DBusSignal;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ForwardingHandlerTest implements DBusInterface {
+
+    @Test(description="Tests dispatching of several consumers by a shared executor.")
+    public void testExecutorDispatch() throws DBusException, InterruptedException {
+        ExecutorService executor = Systemd.newSignalExecutor(2);
+
+        int numConsumers = 5;
+        int numSignals = 200;
+
+        List<List<Long>> received = new ArrayList<>();
+        List<ForwardingHandler<TestSignal>> forwarders = new ArrayList<>();
+
+        for (int i = 0; i < numConsumers; i++) {
+            List<Long> serials = Collections.synchronizedList(new ArrayList<>());
+            SignalConsumer<TestSignal> consumer = new SignalConsumer<>(s -> serials.add(s.getSerial()));
+            ForwardingHandler<TestSignal> forwarder = new ForwardingHandler<>(consumer, executor);
+            forwarder.startConsumer();
+
+            received.add(serials);
+            forwarders.add(forwarder);
+        }
+
+        for (long serial = 0L; serial < numSignals; serial++) {
+            for (ForwardingHandler<TestSignal> forwarder : forwarders) {
+                forwarder.handle(new TestSignal(serial));
+            }
+        }
+
+        forwarders.forEach(ForwardingHandler::stopConsumer);
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5L, TimeUnit.SECONDS));
+
+        for (List<Long> serials : received) {
+            Assert.assertEquals(serials.size(), numSignals);
+
+            for (int i = 0; i < numSignals; i++) {
+                Assert.assertEquals(serials.get(i).longValue(), i);
+            }
+        }
+    }
+
+    @Test(description="Tests batched handover of signals.")
+    public void testBatchDispatch() throws DBusException, InterruptedException {
+        int numSignals = 500;
+        int maxBatchSize = 16;
+
+        List<List<Long>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(numSignals);
+
+        SignalConsumer<TestSignal> consumer = new SignalConsumer<>(new RingSignalSequencer<>(1024), signals -> {
+            List<Long> serials = new ArrayList<>();
+
+            for (TestSignal signal : signals) {
+                serials.add(signal.getSerial());
+                latch.countDown();
+            }
+
+            batches.add(serials);
+        }, maxBatchSize, 20L, TimeUnit.MILLISECONDS);
+
+        ForwardingHandler<TestSignal> forwarder = new ForwardingHandler<>(consumer);
+        forwarder.startConsumer();
+
+        for (long serial = 0L; serial < numSignals; serial++) {
+            forwarder.handle(new TestSignal(serial));
+        }
+
+        Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS));
+
+        forwarder.stopConsumer();
+
+        List<Long> received = new ArrayList<>();
+
+        for (List<Long> batch : batches) {
+            Assert.assertFalse(batch.isEmpty());
+            Assert.assertTrue(batch.size() <= maxBatchSize);
+
+            received.addAll(batch);
+        }
+
+        Assert.assertTrue(batches.size() < numSignals);
+        Assert.assertEquals(received.size(), numSignals);
+
+        for (int i = 0; i < numSignals; i++) {
+            Assert.assertEquals(received.get(i).longValue(), i);
+        }
+    }
+
+    @Test(description="Tests batched handover of signals by an executor.")
+    public void testBatchExecutorDispatch() throws DBusException, InterruptedException {
+        ExecutorService executor = Systemd.newSignalExecutor(1);
+        List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+
+        SignalConsumer<TestSignal> consumer = new SignalConsumer<>(new SignalSequencer<>(1000), signals -> sizes.add(signals.size()), 10, 0L, TimeUnit.MILLISECONDS);
+        ForwardingHandler<TestSignal> forwarder = new ForwardingHandler<>(consumer, executor);
+
+        for (long serial = 0L; serial < 100L; serial++) {
+            forwarder.handle(new TestSignal(serial));
+        }
+
+        forwarder.stopConsumer();
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5L, TimeUnit.SECONDS));
+
+        Assert.assertEquals(sizes.stream().mapToInt(Integer::intValue).sum(), 100);
+        Assert.assertTrue(sizes.stream().allMatch(n -> n > 0 && n <= 10));
+    }
+
+    @Test(description="Tests reordering of signals dispatched by an executor.")
+    public void testReorderingExecutorDispatch() throws DBusException, InterruptedException {
+        ExecutorService executor = Systemd.newSignalExecutor(1);
+        List<Long> serials = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2);
+
+        SignalConsumer<TestSignal> consumer = new SignalConsumer<>(new RingSignalSequencer<>(16), s -> {
+            serials.add(s.getSerial());
+            latch.countDown();
+        });
+
+        ForwardingHandler<TestSignal> forwarder = new ForwardingHandler<>(consumer, executor);
+
+        try {
+            // Predecessor arrives late, but within the reordering window
+            forwarder.handle(new TestSignal(2L));
+
+            Thread.sleep(10L);
+
+            Assert.assertTrue(serials.isEmpty());
+
+            forwarder.handle(new TestSignal(1L));
+
+            Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS));
+            Assert.assertEquals(serials, Arrays.asList(1L, 2L));
+        }
+        finally {
+            forwarder.stopConsumer();
+            executor.shutdown();
+        }
+    }
+
+    @Test(description="Tests latency of batches dispatched by an executor.")
+    public void testBatchLatencyExecutorDispatch() throws DBusException, InterruptedException {
+        ExecutorService executor = Systemd.newSignalExecutor(1);
+        List<List<Long>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+
+        SignalConsumer<TestSignal> consumer = new SignalConsumer<>(new SignalSequencer<>(100), signals -> {
+            List<Long> serials = new ArrayList<>();
+            signals.forEach(signal -> serials.add(signal.getSerial()));
+
+            batches.add(serials);
+            latch.countDown();
+        }, 10, 200L, TimeUnit.MILLISECONDS);
+
+        ForwardingHandler<TestSignal> forwarder = new ForwardingHandler<>(consumer, executor);
+
+        try {
+            long start = System.nanoTime();
+
+            // Incomplete batch is held back until its latency elapsed
+            for (long serial = 1L; serial <= 3L; serial++) {
+                forwarder.handle(new TestSignal(serial));
+            }
+
+            Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS));
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200L));
+            Assert.assertEquals(batches, Collections.singletonList(Arrays.asList(1L, 2L, 3L)));
+        }
+        finally {
+            forwarder.stopConsumer();
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    @Override
+    public String getObjectPath() {
+        return Systemd.OBJECT_PATH;
+    }
+
+    private static class TestSignal extends DBusSignal {
+
+        public TestSignal(final long serial) throws DBusException {
+            super(Systemd.OBJECT_PATH);
+
+            this.serial = serial;
+        }
+
+    }
+
+}
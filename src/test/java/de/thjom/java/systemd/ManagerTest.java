@@ -11,11 +11,47 @@
 
 package de.thjom.java.systemd;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.freedesktop.DBus;
+import org.freedesktop.DBus.Error.UnknownMethod;
+import org.freedesktop.DBus.NameOwnerChanged;
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.CallbackHandler;
+import org.freedesktop.dbus.DBusConnection;
+import org.freedesktop.dbus.DBusInterface;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.Path;
+import org.freedesktop.dbus.UInt32;
+import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.exceptions.DBusException;
+import org.freedesktop.dbus.exceptions.DBusExecutionException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import de.thjom.java.systemd.interfaces.ManagerInterface;
+import de.thjom.java.systemd.interfaces.ManagerInterface.Reloading;
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitRemoved;
+import de.thjom.java.systemd.interfaces.PropertyInterface;
+import de.thjom.java.systemd.interfaces.ServiceInterface;
+import de.thjom.java.systemd.interfaces.TimerInterface;
+import de.thjom.java.systemd.types.UnitType;
+
 public class ManagerTest extends AbstractTestCase {
 
     private Manager manager;
@@ -49,4 +85,390 @@ public class ManagerTest extends AbstractTestCase {
         }
     }
 
+    @Test(dependsOnMethods={ "testAccess" }, description="Tests bulk property access of manager interface.")
+    public void testAllProperties() {
+        Map<String, Variant<?>> values = new HashMap<>();
+
+        for (String propertyName : Manager.Property.getAllNames()) {
+            values.put(propertyName, new Variant<>(propertyName));
+        }
+
+        Mockito.when(piface.getAllProperties(Manager.SERVICE_NAME)).thenReturn(values);
+
+        Map<String, Variant<?>> all = manager.getProperties().getAll();
+
+        Assert.assertEquals(all.size(), Manager.Property.getAllNames().length);
+
+        for (String propertyName : Manager.Property.getAllNames()) {
+            Assert.assertEquals(all.get(propertyName).getValue(), propertyName);
+        }
+    }
+
+    @Test(dependsOnMethods={ "testAccess" }, description="Tests asynchronous method calls of manager interface.")
+    public void testAsyncCalls() throws InterruptedException, ExecutionException {
+        Path jobPath = new Path(Systemd.OBJECT_PATH + "/job/42");
+
+        Mockito.doAnswer(invocation -> {
+            CallbackHandler<Path> handler = invocation.getArgument(2);
+            handler.handle(jobPath);
+
+            return null;
+        }).when(dbus).callWithCallback(Mockito.any(), Mockito.eq("startUnit"), Mockito.any(), Mockito.eq("cronie.service"), Mockito.eq(Unit.Mode.REPLACE.getValue()));
+
+        Mockito.doAnswer(invocation -> {
+            CallbackHandler<Path> handler = invocation.getArgument(2);
+            handler.handleError(new DBusExecutionException("Unit not found"));
+
+            return null;
+        }).when(dbus).callWithCallback(Mockito.any(), Mockito.eq("stopUnit"), Mockito.any(), Mockito.any(), Mockito.any());
+
+        CompletableFuture<Path> started = manager.startUnitAsync("cronie.service", Unit.Mode.REPLACE);
+
+        Assert.assertTrue(started.isDone());
+        Assert.assertEquals(started.get(), jobPath);
+
+        CompletableFuture<Path> stopped = manager.stopUnitAsync("missing.service", Unit.Mode.REPLACE);
+
+        Assert.assertTrue(stopped.isCompletedExceptionally());
+
+        try {
+            stopped.get();
+            Assert.fail("Expected exceptional completion");
+        }
+        catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof DBusExecutionException);
+        }
+    }
+
+    @Test(dependsOnMethods={ "testAccess" }, description="Tests pipelined property access of several units.")
+    public void testUnitProperties() throws DBusException {
+        Map<String, Variant<?>> values = new HashMap<>();
+        values.put(Unit.Property.ACTIVE_STATE, new Variant<>("active"));
+        values.put(Unit.Property.SUB_STATE, new Variant<>("running"));
+        values.put(Service.Property.MEMORY_CURRENT, new Variant<>("1024"));
+
+        AtomicInteger calls = new AtomicInteger();
+
+        Mockito.doAnswer(invocation -> {
+            CallbackHandler<Map<String, Variant<?>>> handler = invocation.getArgument(2);
+
+            if (calls.getAndIncrement() == 1) {
+                handler.handleError(new DBusExecutionException("Unit not found"));
+            }
+            else {
+                handler.handle(values);
+            }
+
+            return null;
+        }).when(dbus).callWithCallback(Mockito.any(), Mockito.eq("getAllProperties"), Mockito.any(), Mockito.eq(""));
+
+        Map<String, Map<String, Variant<?>>> result = manager.getUnitProperties(Arrays.asList("cronie.service", "missing.service", "sshd.service"),
+                new HashSet<>(Arrays.asList(Unit.Property.ACTIVE_STATE, Service.Property.MEMORY_CURRENT)));
+
+        Assert.assertEquals(calls.get(), 3);
+        Assert.assertEquals(result.keySet(), new HashSet<>(Arrays.asList("cronie.service", "sshd.service")));
+        Assert.assertEquals(result.get("cronie.service").size(), 2);
+        Assert.assertEquals(result.get("sshd.service").get(Unit.Property.ACTIVE_STATE).getValue(), "active");
+        Assert.assertFalse(result.get("sshd.service").containsKey(Unit.Property.SUB_STATE));
+    }
+
+    @Test(dependsOnMethods={ "testAccess" }, description="Tests timeout of pipelined property access.")
+    public void testUnitPropertiesTimeout() throws DBusException {
+        Map<String, Variant<?>> values = Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("active"));
+        List<CallbackHandler<Map<String, Variant<?>>>> late = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Reply of the second unit is not received in time
+        Mockito.doAnswer(invocation -> {
+            CallbackHandler<Map<String, Variant<?>>> handler = invocation.getArgument(2);
+
+            if (calls.getAndIncrement() == 1) {
+                late.add(handler);
+            }
+            else {
+                handler.handle(values);
+            }
+
+            return null;
+        }).when(dbus).callWithCallback(Mockito.any(), Mockito.eq("getAllProperties"), Mockito.any(), Mockito.eq(""));
+
+        Map<String, Map<String, Variant<?>>> result = manager.getUnitProperties(Arrays.asList("cronie.service", "hung.service", "sshd.service"), null, 50L, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(result.keySet(), new HashSet<>(Arrays.asList("cronie.service", "sshd.service")));
+        Assert.assertEquals(late.size(), 1);
+
+        // A late reply is ignored
+        late.get(0).handle(values);
+
+        Assert.assertFalse(result.containsKey("hung.service"));
+    }
+
+    @Test(dependsOnMethods={ "testAccess" }, description="Tests caching of unit adapters.")
+    public void testUnitCache() throws DBusException {
+        ServiceInterface siface = Mockito.mock(ServiceInterface.class);
+        TimerInterface tiface = Mockito.mock(TimerInterface.class);
+
+        Mockito.when(siface.getObjectPath()).thenReturn("foo");
+        Mockito.when(tiface.getObjectPath()).thenReturn("bar");
+        Mockito.when(dbus.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.anyString(), Mockito.eq(ServiceInterface.class))).thenReturn(siface);
+        Mockito.when(dbus.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.anyString(), Mockito.eq(TimerInterface.class))).thenReturn(tiface);
+
+        Assert.assertNotSame(manager.getService("cronie"), manager.getService("cronie"));
+
+        manager.enableUnitCache(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<UnitRemoved>> captor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(UnitRemoved.class), Mockito.eq(miface), captor.capture());
+
+        Service cronie = manager.getService("cronie");
+
+        Assert.assertTrue(manager.isUnitCacheEnabled());
+        Assert.assertSame(manager.getService("cronie.service"), cronie);
+        Assert.assertSame(manager.getUnit("cronie.service"), cronie);
+
+        // Least recently used adapter is evicted
+        Service sshd = manager.getService("sshd");
+        manager.getService("cronie");
+        manager.getTimer("logrotate");
+
+        Assert.assertSame(manager.getService("cronie"), cronie);
+        Assert.assertNotSame(manager.getService("sshd"), sshd);
+
+        // Removal by signal
+        captor.getValue().handle(new UnitRemoved(Systemd.OBJECT_PATH, "cronie.service", new Path(Unit.OBJECT_PATH + "cronie_2eservice")));
+
+        Assert.assertNotSame(manager.getService("cronie"), cronie);
+
+        manager.disableUnitCache();
+
+        Assert.assertFalse(manager.isUnitCacheEnabled());
+        Mockito.verify(dbus).removeSigHandler(UnitRemoved.class, miface, captor.getValue());
+
+        // Re-enabling replaces the handler instead of adding a second one
+        manager.enableUnitCache(2);
+        manager.enableUnitCache(4);
+
+        Mockito.verify(dbus, Mockito.times(3)).addSigHandler(Mockito.eq(UnitRemoved.class), Mockito.eq(miface), captor.capture());
+        Mockito.verify(dbus, Mockito.times(2)).removeSigHandler(Mockito.eq(UnitRemoved.class), Mockito.eq(miface), Mockito.any(UnitCache.class));
+
+        manager.disableUnitCache();
+
+        Mockito.verify(dbus).removeSigHandler(UnitRemoved.class, miface, captor.getValue());
+        Mockito.verify(dbus, Mockito.times(3)).removeSigHandler(Mockito.eq(UnitRemoved.class), Mockito.eq(miface), Mockito.any(UnitCache.class));
+    }
+
+    @Test(description="Tests restoring of manager state on a new connection.")
+    public void testRebind() throws DBusException {
+        Manager local = Manager.create(dbus);
+        DBusSigHandler<Reloading> handler = s -> { /* Nothing to do */ };
+
+        local.subscribe();
+        local.addHandler(Reloading.class, handler);
+
+        DBusConnection update = Mockito.mock(DBusConnection.class);
+        ManagerInterface updatedIface = Mockito.mock(ManagerInterface.class);
+
+        Mockito.when(miface.getObjectPath()).thenReturn(Systemd.OBJECT_PATH);
+        Mockito.when(update.getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class)).thenReturn(updatedIface);
+        Mockito.when(update.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.any(), Mockito.eq(PropertyInterface.class))).thenReturn(piface);
+
+        local.rebind(update);
+
+        Assert.assertSame(local.getInterface(), updatedIface);
+        Mockito.verify(update).addSigHandler(Reloading.class, handler);
+        Mockito.verify(updatedIface).subscribe();
+
+        local.removeHandler(Reloading.class, handler);
+
+        Mockito.verify(update).removeSigHandler(Reloading.class, handler);
+    }
+
+    @Test(description="Tests rebinding to the same connection without duplicate handler registrations.")
+    public void testRebindSameConnection() throws DBusException {
+        DBusConnection connection = Mockito.mock(DBusConnection.class);
+        DBus bus = Mockito.mock(DBus.class);
+
+        Mockito.when(connection.getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class)).thenReturn(miface);
+        Mockito.when(connection.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.any(), Mockito.eq(PropertyInterface.class))).thenReturn(piface);
+        Mockito.when(connection.getRemoteObject("org.freedesktop.DBus", "/org/freedesktop/DBus", DBus.class)).thenReturn(bus);
+        Mockito.when(bus.GetNameOwner(Systemd.SERVICE_NAME)).thenReturn(":1.7");
+        Mockito.when(miface.getObjectPath()).thenReturn(Systemd.OBJECT_PATH);
+
+        Manager local = Manager.create(connection);
+
+        DBusSigHandler<Reloading> reloadingHandler = s -> { /* Nothing to do */ };
+        DBusSigHandler<NameOwnerChanged> ownerHandler = s -> { /* Nothing to do */ };
+
+        local.addHandler(Reloading.class, reloadingHandler);
+        local.addHandler(NameOwnerChanged.class, ownerHandler);
+
+        local.rebind(connection);
+        local.rebind(connection);
+
+        // Each rebind removes the previous registration before adding it again
+        Mockito.verify(connection, Mockito.times(3)).addSigHandler(Reloading.class, ":1.7", reloadingHandler);
+        Mockito.verify(connection, Mockito.times(2)).removeSigHandler(Reloading.class, ":1.7", reloadingHandler);
+        Mockito.verify(connection, Mockito.times(3)).addSigHandler(NameOwnerChanged.class, ownerHandler);
+        Mockito.verify(connection, Mockito.times(2)).removeSigHandler(NameOwnerChanged.class, ownerHandler);
+
+        local.removeHandler(Reloading.class, reloadingHandler);
+        local.removeHandler(NameOwnerChanged.class, ownerHandler);
+
+        Mockito.verify(connection, Mockito.times(3)).removeSigHandler(Reloading.class, ":1.7", reloadingHandler);
+        Mockito.verify(connection, Mockito.times(3)).removeSigHandler(NameOwnerChanged.class, ownerHandler);
+    }
+
+    @Test(description="Tests filtered unit listing and its local fallback.")
+    public void testFilteredListing() throws DBusException {
+        DBusConnection connection = Mockito.mock(DBusConnection.class);
+        ManagerInterface iface = Mockito.mock(ManagerInterface.class);
+
+        Mockito.when(connection.getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class)).thenReturn(iface);
+        Mockito.when(connection.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.any(), Mockito.eq(PropertyInterface.class))).thenReturn(piface);
+
+        List<UnitType> units = Arrays.asList(
+                new UnitType("boot.mount", null, "loaded", "active", "mounted", null, null, new UInt32(0L), null, null),
+                new UnitType("cronie.service", null, "loaded", "active", "running", null, null, new UInt32(0L), null, null),
+                new UnitType("sshd.service", null, "loaded", "failed", "failed", null, null, new UInt32(0L), null, null),
+                new UnitType("sshd.socket", null, "loaded", "active", "listening", null, null, new UInt32(0L), null, null));
+
+        Mockito.when(iface.listUnits()).thenReturn(units);
+        Mockito.when(iface.listUnitsByPatterns(Mockito.anyList(), Mockito.anyList())).thenThrow(new UnknownMethod("Unknown method 'ListUnitsByPatterns'"));
+
+        Manager local = Manager.create(connection);
+
+        Assert.assertEquals(names(local.listUnitsByPatterns(Collections.emptyList(), Arrays.asList("*.service"))), Arrays.asList("cronie.service", "sshd.service"));
+        Assert.assertEquals(names(local.listUnitsByPatterns(Arrays.asList("active"), Arrays.asList("sshd.*", "boot.[lm]ount"))), Arrays.asList("boot.mount", "sshd.socket"));
+        Assert.assertEquals(names(local.listUnitsFiltered(Arrays.asList("failed", "running"))), Arrays.asList("cronie.service", "sshd.service"));
+        Assert.assertEquals(names(local.listUnitsByNames(Arrays.asList("sshd.socket", "missing.service"))), Arrays.asList("sshd.socket"));
+
+        // Unsupported methods are not called again
+        Mockito.verify(iface, Mockito.times(1)).listUnitsByPatterns(Mockito.anyList(), Mockito.anyList());
+        Mockito.verify(iface, Mockito.never()).listUnitsFiltered(Mockito.anyList());
+    }
+
+    @Test(description="Tests glob matching of the local unit filter.")
+    public void testGlobFiltering() {
+        List<UnitType> units = Arrays.asList(
+                new UnitType("[.service", null, "loaded", "active", "running", null, null, new UInt32(0L), null, null),
+                new UnitType("]x.service", null, "loaded", "active", "running", null, null, new UInt32(0L), null, null),
+                new UnitType("a.service", null, "loaded", "active", "running", null, null, new UInt32(0L), null, null),
+                new UnitType("b.service", null, "loaded", "active", "running", null, null, new UInt32(0L), null, null),
+                new UnitType("!.service", null, "loaded", "active", "running", null, null, new UInt32(0L), null, null),
+                new UnitType("^.service", null, "loaded", "active", "running", null, null, new UInt32(0L), null, null));
+
+        // Sets, negated sets and a leading closing bracket as member
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[ab].service"))), Arrays.asList("a.service", "b.service"));
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[!ab[].service"))), Arrays.asList("!.service", "^.service"));
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[]]x.service"))), Arrays.asList("]x.service"));
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[!]]x.service"))), Collections.emptyList());
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[!]].service"))), Arrays.asList("[.service", "a.service", "b.service", "!.service", "^.service"));
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[a-b].service"))), Arrays.asList("a.service", "b.service"));
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[^!].service"))), Arrays.asList("!.service", "^.service"));
+
+        // Unclosed sets are literal brackets
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[.service"))), Arrays.asList("[.service"));
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[!]"))), Collections.emptyList());
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[]"))), Collections.emptyList());
+
+        // No match
+        Assert.assertEquals(names(Manager.filterUnits(units, Collections.emptyList(), Arrays.asList("[cd].service", "*.socket"))), Collections.emptyList());
+    }
+
+    private static List<String> names(final List<UnitType> units) {
+        return units.stream().map(UnitType::getUnitName).collect(Collectors.toList());
+    }
+
+    @Test(description="Tests dispatching of unit state changes by a single demultiplexing handler.")
+    public void testPropertiesDemultiplexing() throws DBusException, InterruptedException {
+        DBusConnection connection = Mockito.mock(DBusConnection.class);
+        String avahiPath = Unit.OBJECT_PATH + Systemd.escapePath("avahi-daemon.service");
+        String croniePath = Unit.OBJECT_PATH + Systemd.escapePath("cronie.service");
+
+        ServiceInterface avahiIface = Mockito.mock(ServiceInterface.class);
+        ServiceInterface cronieIface = Mockito.mock(ServiceInterface.class);
+
+        Mockito.when(avahiIface.getObjectPath()).thenReturn(avahiPath);
+        Mockito.when(cronieIface.getObjectPath()).thenReturn(croniePath);
+        Mockito.when(connection.getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class)).thenReturn(miface);
+        Mockito.when(connection.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.any(), Mockito.eq(PropertyInterface.class))).thenReturn(piface);
+        Mockito.when(connection.getRemoteObject(Systemd.SERVICE_NAME, avahiPath, ServiceInterface.class)).thenReturn(avahiIface);
+        Mockito.when(connection.getRemoteObject(Systemd.SERVICE_NAME, croniePath, ServiceInterface.class)).thenReturn(cronieIface);
+
+        Manager local = Manager.create(connection);
+        Service avahi = local.getService("avahi-daemon");
+        Service cronie = local.getService("cronie");
+
+        List<String> notified = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        UnitStateListener avahiListener = (u, p) -> { notified.add(u.getObjectPath()); latch.countDown(); };
+        UnitStateListener cronieListener = (u, p) -> { notified.add(u.getObjectPath()); latch.countDown(); };
+
+        avahi.addListener(avahiListener);
+        cronie.addListener(cronieListener);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<PropertiesChanged>> captor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(connection, Mockito.times(1)).addSigHandler(Mockito.eq(PropertiesChanged.class), captor.capture());
+        Mockito.verify(connection, Mockito.never()).addSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.any(DBusInterface.class), Mockito.any());
+
+        Map<String, Variant<?>> changes = Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("active"));
+
+        captor.getValue().handle(new PropertiesChanged(croniePath, Unit.SERVICE_NAME, changes, Collections.emptyList()));
+        captor.getValue().handle(new PropertiesChanged(Unit.OBJECT_PATH + Systemd.escapePath("sshd.service"), Unit.SERVICE_NAME, changes, Collections.emptyList()));
+        captor.getValue().handle(new PropertiesChanged(avahiPath, Unit.SERVICE_NAME, changes, Collections.emptyList()));
+
+        Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        Assert.assertEquals(notified, Arrays.asList(croniePath, avahiPath));
+
+        avahi.removeListener(avahiListener);
+
+        Mockito.verify(connection, Mockito.never()).removeSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.any(DBusSigHandler.class));
+
+        cronie.removeListener(cronieListener);
+
+        Mockito.verify(connection).removeSigHandler(PropertiesChanged.class, captor.getValue());
+    }
+
+    @Test(description="Tests restriction of unscoped signal handlers to the sender systemd.")
+    public void testSenderScope() throws DBusException {
+        DBusConnection connection = Mockito.mock(DBusConnection.class);
+        DBus bus = Mockito.mock(DBus.class);
+
+        Mockito.when(connection.getRemoteObject(Systemd.SERVICE_NAME, Systemd.OBJECT_PATH, ManagerInterface.class)).thenReturn(miface);
+        Mockito.when(connection.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.any(), Mockito.eq(PropertyInterface.class))).thenReturn(piface);
+        Mockito.when(connection.getRemoteObject("org.freedesktop.DBus", "/org/freedesktop/DBus", DBus.class)).thenReturn(bus);
+        Mockito.when(bus.GetNameOwner(Systemd.SERVICE_NAME)).thenReturn(":1.7");
+
+        Manager local = Manager.create(connection);
+
+        DBusSigHandler<Reloading> reloadingHandler = s -> { /* Nothing to do */ };
+        DBusSigHandler<NameOwnerChanged> ownerHandler = s -> { /* Nothing to do */ };
+
+        local.addHandler(Reloading.class, reloadingHandler);
+        local.addHandler(NameOwnerChanged.class, ownerHandler);
+
+        Mockito.verify(connection).addSigHandler(Reloading.class, ":1.7", reloadingHandler);
+        Mockito.verify(connection).addSigHandler(NameOwnerChanged.class, ownerHandler);
+
+        // Owner is resolved once per connection
+        local.addHandler(Reloading.class, s -> { /* Nothing to do */ });
+
+        Mockito.verify(bus, Mockito.times(1)).GetNameOwner(Systemd.SERVICE_NAME);
+
+        // Handlers follow systemd to its new unique name
+        ServiceOwner.of(connection).handle(new NameOwnerChanged("/org/freedesktop/DBus", Systemd.SERVICE_NAME, ":1.7", ":1.9"));
+
+        Mockito.verify(connection).removeSigHandler(Reloading.class, ":1.7", reloadingHandler);
+        Mockito.verify(connection).addSigHandler(Reloading.class, ":1.9", reloadingHandler);
+
+        local.removeHandler(Reloading.class, reloadingHandler);
+        local.removeHandler(NameOwnerChanged.class, ownerHandler);
+
+        Mockito.verify(connection).removeSigHandler(Reloading.class, ":1.9", reloadingHandler);
+        Mockito.verify(connection).removeSigHandler(NameOwnerChanged.class, ownerHandler);
+    }
+
 }
@@ -0,0 +1,228 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusInterface;
+import org.freedesktop.dbus.DBusSignal;
+import org.freedesktop.dbus.Path;
+import org.freedesktop.dbus.Variant;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitNew;
+
+public class OverflowSignalQueueTest implements DBusInterface {
+
+    private static final String PATH_CRONIE = Unit.OBJECT_PATH + Systemd.escapePath("cronie.service");
+    private static final String PATH_SSHD = Unit.OBJECT_PATH + Systemd.escapePath("sshd.service");
+
+    @Test(description="Tests dropping of new signals.")
+    public void testDropNewest() throws DBusException, InterruptedException {
+        OverflowSignalQueue<TestSignal> queue = newQueue(SignalOverflowPolicy.DROP_NEWEST);
+
+        for (long seqNum = 0L; seqNum < 6L; seqNum++) {
+            queue.put(new TestSignal(PATH_CRONIE, seqNum));
+        }
+
+        Assert.assertEquals(queue.getDropped(), 2L);
+        Assert.assertEquals(drain(queue), new long[] { 0L, 1L, 2L, 3L });
+    }
+
+    @Test(description="Tests dropping of old signals.")
+    public void testDropOldest() throws DBusException, InterruptedException {
+        OverflowSignalQueue<TestSignal> queue = newQueue(SignalOverflowPolicy.DROP_OLDEST);
+
+        for (long seqNum = 0L; seqNum < 6L; seqNum++) {
+            queue.put(new TestSignal(PATH_CRONIE, seqNum));
+        }
+
+        Assert.assertEquals(queue.getDropped(), 2L);
+        Assert.assertEquals(drain(queue), new long[] { 2L, 3L, 4L, 5L });
+    }
+
+    @Test(description="Tests that signals other than property changes are not coalesced.")
+    public void testCoalescing() throws DBusException, InterruptedException {
+        OverflowSignalQueue<TestSignal> queue = newQueue(SignalOverflowPolicy.COALESCE_BY_OBJECT_PATH);
+
+        for (long seqNum = 0L; seqNum < 4L; seqNum++) {
+            queue.put(new TestSignal(PATH_CRONIE, seqNum));
+        }
+
+        queue.put(new TestSignal(PATH_CRONIE, 4L));
+        queue.put(new TestSignal(PATH_SSHD, 5L));
+        queue.put(new TestSignal(PATH_CRONIE, 6L));
+
+        Assert.assertEquals(queue.size(), 4);
+        Assert.assertEquals(queue.getCoalesced(), 0L);
+        Assert.assertEquals(queue.getDropped(), 3L);
+        Assert.assertEquals(drain(queue), new long[] { 3L, 4L, 5L, 6L });
+    }
+
+    @Test(description="Tests merging of coalesced property changes.")
+    public void testPropertiesChangedMerging() throws DBusException, InterruptedException {
+        OverflowSignalQueue<PropertiesChanged> queue = new OverflowSignalQueue<>(new SignalSequencer<>(1), SignalOverflowPolicy.COALESCE_BY_OBJECT_PATH, 0L, TimeUnit.MILLISECONDS);
+        queue.setTransferDelay(0L);
+
+        Map<String, Variant<?>> changes = new HashMap<>();
+        changes.put(Unit.Property.SUB_STATE, new Variant<>("stop-sigterm"));
+        changes.put(Unit.Property.DESCRIPTION, new Variant<>("Cron daemon"));
+
+        queue.put(new PropertiesChanged(PATH_SSHD, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("active")), Collections.emptyList()));
+        queue.put(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("deactivating")), Arrays.asList(Unit.Property.DESCRIPTION, Unit.Property.LOAD_STATE)));
+
+        PropertiesChanged later = new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, changes, Collections.emptyList());
+        queue.put(later);
+
+        Assert.assertEquals(queue.size(), 2);
+        Assert.assertEquals(queue.getCoalesced(), 1L);
+
+        List<PropertiesChanged> signals = new ArrayList<>();
+        queue.drainTo(signals);
+
+        Assert.assertEquals(signals.size(), 2);
+
+        PropertiesChanged merged = signals.get(1);
+
+        Assert.assertEquals(merged.getPath(), PATH_CRONIE);
+        Assert.assertEquals(merged.getSerial(), later.getSerial());
+        Assert.assertEquals(merged.changedProperties.keySet(), new HashSet<>(Arrays.asList(Unit.Property.ACTIVE_STATE, Unit.Property.SUB_STATE, Unit.Property.DESCRIPTION)));
+        Assert.assertEquals(merged.changedProperties.get(Unit.Property.ACTIVE_STATE).getValue(), "deactivating");
+        Assert.assertEquals(merged.invalidatedProperties, Arrays.asList(Unit.Property.LOAD_STATE));
+    }
+
+    @Test(description="Tests that held back signals keep their order across signal types.")
+    public void testCoalescingOrder() throws DBusException, InterruptedException {
+        OverflowSignalQueue<DBusSignal> queue = new OverflowSignalQueue<>(new SignalSequencer<>(1), SignalOverflowPolicy.COALESCE_BY_OBJECT_PATH, 0L, TimeUnit.MILLISECONDS);
+        queue.setTransferDelay(0L);
+
+        queue.put(new PropertiesChanged(PATH_SSHD, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("active")), Collections.emptyList()));
+        queue.put(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("activating")), Collections.emptyList()));
+        queue.put(new UnitNew(Systemd.OBJECT_PATH, "cronie.service", new Path(PATH_CRONIE)));
+        queue.put(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("active")), Collections.emptyList()));
+        queue.put(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.SUB_STATE, new Variant<>("running")), Collections.emptyList()));
+
+        Assert.assertEquals(queue.size(), 4);
+        Assert.assertEquals(queue.getCoalesced(), 1L);
+        Assert.assertEquals(queue.getDropped(), 0L);
+
+        List<DBusSignal> signals = new ArrayList<>();
+        queue.drainTo(signals);
+
+        Assert.assertEquals(signals.size(), 4);
+        Assert.assertEquals(((PropertiesChanged) signals.get(1)).changedProperties.get(Unit.Property.ACTIVE_STATE).getValue(), "activating");
+        Assert.assertTrue(signals.get(2) instanceof UnitNew);
+        Assert.assertEquals(((PropertiesChanged) signals.get(3)).changedProperties.keySet(), new HashSet<>(Arrays.asList(Unit.Property.ACTIVE_STATE, Unit.Property.SUB_STATE)));
+    }
+
+    @Test(description="Tests separation of property changes of different interfaces.")
+    public void testPropertiesChangedCoalescing() throws DBusException, InterruptedException {
+        OverflowSignalQueue<PropertiesChanged> queue = new OverflowSignalQueue<>(new SignalSequencer<>(1), SignalOverflowPolicy.COALESCE_BY_OBJECT_PATH, 0L, TimeUnit.MILLISECONDS);
+        queue.setTransferDelay(0L);
+
+        queue.put(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("active")), Collections.emptyList()));
+        queue.put(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("deactivating")), Collections.emptyList()));
+        queue.put(new PropertiesChanged(PATH_CRONIE, Service.SERVICE_NAME, Collections.singletonMap(Service.Property.MAIN_PID, new Variant<>(0)), Collections.emptyList()));
+        queue.put(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("inactive")), Collections.emptyList()));
+
+        Assert.assertEquals(queue.size(), 3);
+        Assert.assertEquals(queue.getCoalesced(), 1L);
+    }
+
+    @Test(description="Tests dropping of signals after a timeout.")
+    public void testBlockWithTimeout() throws DBusException, InterruptedException {
+        OverflowSignalQueue<TestSignal> queue = new OverflowSignalQueue<>(new RingSignalSequencer<>(2), SignalOverflowPolicy.BLOCK_WITH_TIMEOUT, 10L, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+
+        for (long seqNum = 0L; seqNum < 3L; seqNum++) {
+            queue.put(new TestSignal(PATH_CRONIE, seqNum));
+        }
+
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(10L));
+        Assert.assertEquals(queue.getDropped(), 1L);
+    }
+
+    @Test(description="Tests that a stalled consumer does not block the signal producer.")
+    public void testStalledConsumer() throws DBusException, InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        SignalQueue<TestSignal> queue = new OverflowSignalQueue<>(new RingSignalSequencer<>(4), SignalOverflowPolicy.DROP_OLDEST, 0L, TimeUnit.MILLISECONDS);
+        queue.setTransferDelay(0L);
+
+        ForwardingHandler<TestSignal> forwarder = new ForwardingHandler<>(new SignalConsumer<>(queue, s -> {
+            try {
+                latch.await();
+            }
+            catch (final InterruptedException e) {
+                // Do nothing
+            }
+        }));
+
+        forwarder.startConsumer();
+
+        for (long seqNum = 0L; seqNum < 100L; seqNum++) {
+            forwarder.handle(new TestSignal(PATH_CRONIE, seqNum));
+        }
+
+        Assert.assertTrue(forwarder.getDroppedSignals() > 0L);
+
+        latch.countDown();
+        forwarder.stopConsumer();
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    @Override
+    public String getObjectPath() {
+        return Systemd.OBJECT_PATH;
+    }
+
+    private static OverflowSignalQueue<TestSignal> newQueue(final SignalOverflowPolicy policy) {
+        OverflowSignalQueue<TestSignal> queue = new OverflowSignalQueue<>(new RingSignalSequencer<>(4), policy, 0L, TimeUnit.MILLISECONDS);
+        queue.setTransferDelay(0L);
+
+        return queue;
+    }
+
+    private static long[] drain(final SignalQueue<TestSignal> queue) {
+        List<TestSignal> signals = new ArrayList<>();
+        queue.drainTo(signals);
+
+        return signals.stream().mapToLong(DBusSignal::getSerial).toArray();
+    }
+
+    private static class TestSignal extends DBusSignal {
+
+        public TestSignal(final String path, final long serial) throws DBusException {
+            super(path);
+
+            this.serial = serial;
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.Variant;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class PropertiesTest extends AbstractTestCase {
+
+    private static final String OBJECT_PATH = Unit.OBJECT_PATH + Systemd.escapePath("cronie.service");
+
+    @Override
+    @BeforeMethod
+    public void setup() {
+        super.setup();
+
+        Mockito.when(piface.getObjectPath()).thenReturn(OBJECT_PATH);
+        Mockito.doReturn(new Variant<>("active")).when(piface).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+    }
+
+    @Test(description="Tests uncached property access.")
+    public void testUncachedAccess() throws DBusException {
+        Properties properties = Properties.create(dbus, OBJECT_PATH, Unit.SERVICE_NAME);
+
+        Assert.assertFalse(properties.isCacheEnabled());
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+
+        Mockito.verify(piface, Mockito.times(2)).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+    }
+
+    @Test(description="Tests read-through caching and invalidation by signals.")
+    public void testCachedAccess() throws DBusException {
+        Properties properties = Properties.create(dbus, OBJECT_PATH, Unit.SERVICE_NAME);
+        properties.enableCache(1L, TimeUnit.HOURS);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<PropertiesChanged>> captor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(piface), captor.capture());
+
+        DBusSigHandler<PropertiesChanged> handler = captor.getValue();
+
+        Assert.assertTrue(properties.isCacheEnabled());
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+
+        Mockito.verify(piface, Mockito.times(1)).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+
+        // Update in place
+        handler.handle(new PropertiesChanged(OBJECT_PATH, Unit.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("deactivating")), Collections.emptyList()));
+
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "deactivating");
+        Mockito.verify(piface, Mockito.times(1)).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+
+        // Changes on other interfaces are ignored
+        handler.handle(new PropertiesChanged(OBJECT_PATH, Service.SERVICE_NAME, Collections.singletonMap(Unit.Property.ACTIVE_STATE, new Variant<>("failed")), Collections.emptyList()));
+
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "deactivating");
+
+        // Invalidation
+        handler.handle(new PropertiesChanged(OBJECT_PATH, Unit.SERVICE_NAME, Collections.emptyMap(), Collections.singletonList(Unit.Property.ACTIVE_STATE)));
+
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+        Mockito.verify(piface, Mockito.times(2)).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+
+        properties.disableCache();
+
+        Mockito.verify(dbus).removeSigHandler(PropertiesChanged.class, piface, handler);
+        Assert.assertFalse(properties.isCacheEnabled());
+    }
+
+    @Test(description="Tests that a fetch overtaken by an invalidation is not cached.")
+    public void testStaleFetch() throws DBusException {
+        Properties properties = Properties.create(dbus, OBJECT_PATH, Unit.SERVICE_NAME);
+        properties.enableCache(1L, TimeUnit.HOURS);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<PropertiesChanged>> captor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(piface), captor.capture());
+
+        DBusSigHandler<PropertiesChanged> handler = captor.getValue();
+
+        // Property is invalidated while the value is fetched
+        Mockito.doAnswer(invocation -> {
+            handler.handle(new PropertiesChanged(OBJECT_PATH, Unit.SERVICE_NAME, Collections.emptyMap(), Collections.singletonList(Unit.Property.ACTIVE_STATE)));
+
+            return new Variant<>("active");
+        }).when(piface).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+
+        Mockito.doReturn(new Variant<>("inactive")).when(piface).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "inactive");
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "inactive");
+
+        Mockito.verify(piface, Mockito.times(2)).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+    }
+
+    @Test(description="Tests expiry of cached values.")
+    public void testCacheExpiry() throws DBusException, InterruptedException {
+        Properties properties = Properties.create(dbus, OBJECT_PATH, Unit.SERVICE_NAME);
+        properties.enableCache(10L, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+
+        Thread.sleep(20L);
+
+        Assert.assertEquals(properties.getString(Unit.Property.ACTIVE_STATE), "active");
+        Mockito.verify(piface, Mockito.times(2)).getProperty(Unit.SERVICE_NAME, Unit.Property.ACTIVE_STATE);
+    }
+
+}
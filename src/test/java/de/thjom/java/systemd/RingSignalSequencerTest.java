@@ -0,0 +1,171 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.dbus.DBusInterface;
+import org.freedesktop.dbus.DBusSignal;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class RingSignalSequencerTest implements DBusInterface {
+
+    @DataProvider
+    public Object[][] waitStrategies() {
+        return new Object[][] { { false }, { true } };
+    }
+
+    @Test(description="Tests sequencer ordering.", dataProvider="waitStrategies")
+    public void testSequencerLogic(final boolean spinning) throws DBusException, InterruptedException {
+        RingSignalSequencer<TestSignal> sequencer = new RingSignalSequencer<>(100, spinning);
+
+        Assert.assertEquals(sequencer.getCapacity(), 128);
+
+        for (long seqNum = 20L; seqNum >= -20L; seqNum--) {
+            sequencer.put(new TestSignal(seqNum));
+        }
+
+        Assert.assertEquals(sequencer.size(), 41);
+
+        List<Long> serials = new ArrayList<>();
+        TestSignal tm = sequencer.take();
+
+        while (tm != null) {
+            serials.add(tm.getSerial());
+
+            tm = sequencer.poll(250L, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals(serials.size(), 41);
+        Assert.assertEquals(sequencer.size(), 0);
+
+        for (int i = 0; i < serials.size(); i++) {
+            Assert.assertEquals(serials.get(i).longValue(), i - 20L);
+        }
+    }
+
+    @Test(description="Tests rejection of signals by a full ring buffer.")
+    public void testCapacity() throws DBusException {
+        RingSignalSequencer<TestSignal> sequencer = new RingSignalSequencer<>(4);
+        sequencer.setTransferDelay(0L);
+
+        for (long seqNum = 0L; seqNum < 4L; seqNum++) {
+            Assert.assertTrue(sequencer.offer(new TestSignal(seqNum)));
+        }
+
+        Assert.assertFalse(sequencer.offer(new TestSignal(4L)));
+
+        List<TestSignal> drain = new ArrayList<>();
+
+        Assert.assertEquals(sequencer.drainTo(drain), 4);
+        Assert.assertTrue(sequencer.offer(new TestSignal(4L)));
+        Assert.assertEquals(sequencer.size(), 1);
+
+        sequencer.clear();
+
+        Assert.assertEquals(sequencer.size(), 0);
+    }
+
+    @Test(description="Tests concurrent access by several producers.", dataProvider="waitStrategies")
+    public void testConcurrentProducers(final boolean spinning) throws InterruptedException {
+        RingSignalSequencer<TestSignal> sequencer = new RingSignalSequencer<>(64, spinning);
+        sequencer.setTransferDelay(1L);
+
+        int numProducers = 4;
+        int numSignals = 5000;
+
+        List<Thread> producers = new ArrayList<>();
+
+        for (int i = 0; i < numProducers; i++) {
+            int offset = i;
+
+            Thread producer = new Thread(() -> {
+                try {
+                    for (long seqNum = offset; seqNum < numSignals; seqNum += numProducers) {
+                        sequencer.put(new TestSignal(seqNum));
+                    }
+                }
+                catch (final InterruptedException | DBusException e) {
+                    // Do nothing
+                }
+            });
+
+            producer.start();
+            producers.add(producer);
+        }
+
+        Set<Long> serials = new HashSet<>();
+
+        while (serials.size() < numSignals) {
+            TestSignal tm = sequencer.poll(5L, TimeUnit.SECONDS);
+
+            Assert.assertNotNull(tm);
+            Assert.assertTrue(serials.add(tm.getSerial()));
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Assert.assertEquals(sequencer.size(), 0);
+    }
+
+    @Test(description="Tests interruption of a waiting consumer.")
+    public void testInterruption() throws InterruptedException {
+        RingSignalSequencer<TestSignal> sequencer = new RingSignalSequencer<>(16);
+        List<Throwable> caught = new ArrayList<>();
+
+        Thread consumer = new Thread(() -> {
+            try {
+                sequencer.take();
+            }
+            catch (final InterruptedException e) {
+                caught.add(e);
+            }
+        });
+
+        consumer.start();
+        consumer.interrupt();
+        consumer.join(5000L);
+
+        Assert.assertFalse(consumer.isAlive());
+        Assert.assertEquals(caught.size(), 1);
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    @Override
+    public String getObjectPath() {
+        return Systemd.OBJECT_PATH;
+    }
+
+    private static class TestSignal extends DBusSignal {
+
+        public TestSignal(final long serial) throws DBusException {
+            super(Systemd.OBJECT_PATH);
+
+            this.serial = serial;
+        }
+
+    }
+
+}
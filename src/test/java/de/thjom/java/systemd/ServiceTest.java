@@ -11,6 +11,14 @@
 
 package de.thjom.java.systemd;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import org.freedesktop.dbus.UInt64;
+import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.exceptions.DBusException;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -88,4 +96,36 @@ public class ServiceTest extends UnitTest {
         testUnitProperties(service, Service.Property.getAllNames());
     }
 
+    @Test(dependsOnMethods={ "testAccess" }, description="Tests snapshot of unit and service properties.")
+    public void testSnapshot() {
+        Map<String, Variant<?>> values = new HashMap<>();
+        values.put(Unit.Property.ID, new Variant<>("dbus.service"));
+        values.put(Unit.Property.ACTIVE_STATE, new Variant<>("active"));
+        values.put(Unit.Property.LOAD_STATE, new Variant<>("loaded"));
+        values.put(Unit.Property.SUB_STATE, new Variant<>("running"));
+        values.put(Unit.Property.NAMES, new Variant<>(new Vector<>(Arrays.asList("dbus.service", "messagebus.service")), "as"));
+        values.put(Service.Property.MAIN_PID, new Variant<>(Integer.valueOf(42)));
+        values.put(Service.Property.MEMORY_CURRENT, new Variant<>(new UInt64(1024L)));
+
+        Mockito.when(piface.getAllProperties("")).thenReturn(values);
+
+        UnitSnapshot snapshot = service.snapshot();
+
+        // Snapshot is detached from the source map
+        values.clear();
+
+        Assert.assertEquals(snapshot.getName(), "dbus.service");
+        Assert.assertEquals(snapshot.getId(), "dbus.service");
+        Assert.assertEquals(snapshot.getStateTuple().toString(), "loaded - active (running)");
+        Assert.assertEquals(snapshot.getInteger(Service.Property.MAIN_PID), 42);
+        Assert.assertEquals(snapshot.getBigInteger(Service.Property.MEMORY_CURRENT).longValue(), 1024L);
+
+        List<String> names = snapshot.getList(Unit.Property.NAMES);
+
+        Assert.assertEquals(names.size(), 2);
+        Assert.assertSame(snapshot.getList(Unit.Property.NAMES), names);
+        Assert.assertTrue(snapshot.hasProperty(Service.Property.MAIN_PID));
+        Assert.assertFalse(snapshot.hasProperty(Service.Property.CONTROL_PID));
+    }
+
 }
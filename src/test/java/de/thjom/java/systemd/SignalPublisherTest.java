@@ -0,0 +1,175 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.awaitility.Awaitility;
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.DBusSignal;
+import org.freedesktop.dbus.Path;
+import org.freedesktop.dbus.Variant;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitNew;
+
+public class SignalPublisherTest extends AbstractTestCase {
+
+    @Override
+    @BeforeMethod
+    public void setup() {
+        super.setup();
+    }
+
+    @Test(description="Tests delivery of signals as requested by the subscriber.")
+    public void testDemand() throws DBusException, InterruptedException {
+        Manager manager = Manager.create(dbus);
+        TestSubscriber<UnitNew> subscriber = new TestSubscriber<>();
+
+        manager.getPublisher(UnitNew.class).subscribe(subscriber);
+
+        DBusSigHandler<UnitNew> handler = captureHandler(UnitNew.class);
+
+        subscriber.subscription.get().request(2L);
+
+        for (int i = 0; i < 3; i++) {
+            handler.handle(newUnitNew("unit" + i + ".service"));
+        }
+
+        Awaitility.await().atMost(5L, TimeUnit.SECONDS).until(() -> subscriber.received.size() == 2);
+        Thread.sleep(50L);
+
+        Assert.assertEquals(subscriber.received.size(), 2);
+
+        subscriber.subscription.get().request(1L);
+
+        Awaitility.await().atMost(5L, TimeUnit.SECONDS).until(() -> subscriber.received.size() == 3);
+        Assert.assertEquals(subscriber.received.get(2).getId(), "unit2.service");
+
+        subscriber.subscription.get().cancel();
+
+        Mockito.verify(dbus).removeSigHandler(UnitNew.class, handler);
+    }
+
+    @Test(description="Tests coalescing of property changes of a slow subscriber.")
+    public void testCoalescing() throws DBusException {
+        Manager manager = Manager.create(dbus);
+        TestSubscriber<PropertiesChanged> subscriber = new TestSubscriber<>();
+
+        manager.getPublisher(PropertiesChanged.class).subscribe(subscriber);
+
+        DBusSigHandler<PropertiesChanged> handler = captureHandler(PropertiesChanged.class);
+
+        String[] paths = { Unit.OBJECT_PATH + "a_2eservice", Unit.OBJECT_PATH + "b_2eservice", Unit.OBJECT_PATH + "c_2eservice" };
+        int numSignals = 300;
+
+        for (int i = 0; i < numSignals; i++) {
+            Map<String, Variant<?>> changes = new HashMap<>();
+            changes.put(Unit.Property.SUB_STATE, new Variant<>(String.valueOf(i)));
+
+            // A change which is followed by changes of other properties only
+            if (i == numSignals - 6) {
+                changes.put(Unit.Property.ACTIVE_STATE, new Variant<>("deactivating"));
+            }
+
+            handler.handle(new PropertiesChanged(paths[i % paths.length], Unit.SERVICE_NAME, changes, Collections.emptyList()));
+        }
+
+        subscriber.subscription.get().request(Long.MAX_VALUE);
+
+        Awaitility.await().atMost(5L, TimeUnit.SECONDS).until(() -> subscriber.received.stream().anyMatch(s -> isLastChange(s, numSignals - 1)));
+
+        Assert.assertTrue(subscriber.received.size() < numSignals);
+
+        for (int i = numSignals - paths.length; i < numSignals; i++) {
+            int last = i;
+
+            Assert.assertTrue(subscriber.received.stream().anyMatch(s -> isLastChange(s, last)));
+        }
+
+        Assert.assertTrue(subscriber.received.stream().anyMatch(s -> s.getPath().equals(paths[0]) && s.changedProperties.containsKey(Unit.Property.ACTIVE_STATE)));
+
+        subscriber.subscription.get().cancel();
+    }
+
+    @Test(description="Tests rejection of non-positive demand.")
+    public void testInvalidDemand() throws DBusException {
+        Manager manager = Manager.create(dbus);
+        TestSubscriber<UnitNew> subscriber = new TestSubscriber<>();
+
+        manager.getPublisher(UnitNew.class).subscribe(subscriber);
+
+        DBusSigHandler<UnitNew> handler = captureHandler(UnitNew.class);
+
+        subscriber.subscription.get().request(0L);
+
+        Assert.assertTrue(subscriber.error.get() instanceof IllegalArgumentException);
+        Mockito.verify(dbus).removeSigHandler(UnitNew.class, handler);
+    }
+
+    private <T extends DBusSignal> DBusSigHandler<T> captureHandler(final Class<T> type) throws DBusException {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<T>> captor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(type), captor.capture());
+
+        return captor.getValue();
+    }
+
+    private static UnitNew newUnitNew(final String name) throws DBusException {
+        return new UnitNew(Systemd.OBJECT_PATH, name, new Path(Unit.OBJECT_PATH + Systemd.escapePath(name)));
+    }
+
+    private static boolean isLastChange(final PropertiesChanged signal, final int index) {
+        return String.valueOf(index).equals(signal.changedProperties.get(Unit.Property.SUB_STATE).getValue());
+    }
+
+    private static class TestSubscriber<T> implements SignalFlow.Subscriber<T> {
+
+        private final AtomicReference<SignalFlow.Subscription> subscription = new AtomicReference<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final List<T> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onSubscribe(final SignalFlow.Subscription s) {
+            subscription.set(s);
+        }
+
+        @Override
+        public void onNext(final T item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            // Do nothing (infinite stream)
+        }
+
+    }
+
+}
@@ -133,6 +133,47 @@ public class SignalSequencerTest implements DBusInterface {
         Assert.assertTrue(Arrays.equals(drainedData.toArray(), testData.toArray()));
     }
 
+    @Test(description="Tests adaptation of the reordering window.")
+    public void testReorderWindow() throws DBusException, InterruptedException {
+        SignalSequencer<TestSignal> sequencer = new SignalSequencer<>(100);
+
+        Assert.assertEquals(sequencer.getReorderWindow(TimeUnit.MILLISECONDS), SignalSequencer.DEFAULT_TRANSFER_DELAY);
+
+        // In-order signals shrink the window
+        for (long seqNum = 0L; seqNum < 50L; seqNum++) {
+            sequencer.put(new TestSignal(seqNum * 2));
+
+            Assert.assertEquals(sequencer.take().getSerial(), seqNum * 2);
+        }
+
+        Assert.assertTrue(sequencer.getReorderWindow(TimeUnit.MILLISECONDS) < SignalSequencer.DEFAULT_TRANSFER_DELAY);
+
+        // Direct successors are released without delay
+        List<TestSignal> successors = new ArrayList<>();
+
+        for (long seqNum = 99L; seqNum < 200L; seqNum++) {
+            successors.add(new TestSignal(seqNum));
+        }
+
+        long start = System.nanoTime();
+
+        for (TestSignal successor : successors) {
+            sequencer.put(successor);
+
+            Assert.assertSame(sequencer.take(), successor);
+        }
+
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(SignalSequencer.DEFAULT_TRANSFER_DELAY));
+
+        // A late signal widens the window
+        long window = sequencer.getReorderWindow(TimeUnit.NANOSECONDS);
+
+        sequencer.put(new TestSignal(150L));
+        sequencer.take();
+
+        Assert.assertTrue(sequencer.getReorderWindow(TimeUnit.NANOSECONDS) > window);
+    }
+
     @Override
     public boolean isRemote() {
         return false;
@@ -0,0 +1,118 @@
+/*
+ * Java-systemd implementation
+ * Copyright (c) 2016 Markus Enax
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of either the GNU Lesser General Public License Version 2 or the
+ * Academic Free Licence Version 3.0.
+ *
+ * Full licence texts are included in the COPYING file with this program.
+ */
+
+package de.thjom.java.systemd;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.Variant;
+import org.freedesktop.dbus.exceptions.DBusException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class StateCoalescerTest {
+
+    private static final String PATH_CRONIE = Unit.OBJECT_PATH + Systemd.escapePath("cronie.service");
+    private static final String PATH_SSHD = Unit.OBJECT_PATH + Systemd.escapePath("sshd.service");
+
+    @Test(description="Tests merging of property changes within the coalescing window.")
+    public void testCoalescing() throws DBusException, InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        List<Map<String, Variant<?>>> received = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        StateCoalescer coalescer = new StateCoalescer(50L, TimeUnit.MILLISECONDS, (path, properties) -> {
+            if (PATH_CRONIE.equals(path)) {
+                received.add(properties);
+            }
+
+            threads.add(Thread.currentThread().getName());
+
+            latch.countDown();
+        });
+
+        coalescer.submit(changed(PATH_CRONIE, Unit.Property.ACTIVE_STATE, "activating"));
+        coalescer.submit(changed(PATH_CRONIE, Unit.Property.SUB_STATE, "start-pre"));
+        coalescer.submit(changed(PATH_SSHD, Unit.Property.ACTIVE_STATE, "active"));
+        coalescer.submit(changed(PATH_CRONIE, Unit.Property.ACTIVE_STATE, "active"));
+        coalescer.submit(changed(PATH_CRONIE, Unit.Property.SUB_STATE, "running"));
+
+        Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        Assert.assertEquals(received.size(), 1);
+        Assert.assertEquals(received.get(0).get(Unit.Property.ACTIVE_STATE).getValue(), "active");
+        Assert.assertEquals(received.get(0).get(Unit.Property.SUB_STATE).getValue(), "running");
+        Assert.assertEquals(coalescer.getReceived(), 5L);
+        Assert.assertEquals(coalescer.getDelivered(), 2L);
+
+        // Listeners are not run by the scheduler thread
+        Assert.assertFalse(threads.contains(SharedScheduler.class.getSimpleName()));
+    }
+
+    @Test(description="Tests delivery of merged changes by the given executor.")
+    public void testDeliveryExecutor() throws DBusException, InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "delivery"));
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        try {
+            StateCoalescer coalescer = new StateCoalescer(10L, TimeUnit.MILLISECONDS, (path, properties) -> {
+                threads.add(Thread.currentThread().getName());
+
+                latch.countDown();
+            }, executor);
+
+            coalescer.submit(changed(PATH_CRONIE, Unit.Property.ACTIVE_STATE, "active"));
+
+            Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS));
+            Assert.assertEquals(threads, Collections.singletonList("delivery"));
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(description="Tests invalidation and immediate delivery of pending changes.")
+    public void testFlush() throws DBusException {
+        List<Map<String, Variant<?>>> received = new CopyOnWriteArrayList<>();
+
+        StateCoalescer coalescer = new StateCoalescer(1L, TimeUnit.HOURS, (path, properties) -> received.add(properties));
+
+        coalescer.submit(changed(PATH_CRONIE, Unit.Property.ACTIVE_STATE, "active"));
+        coalescer.submit(changed(PATH_CRONIE, Unit.Property.SUB_STATE, "running"));
+        coalescer.submit(new PropertiesChanged(PATH_CRONIE, Unit.SERVICE_NAME, Collections.emptyMap(), Collections.singletonList(Unit.Property.SUB_STATE)));
+
+        Assert.assertTrue(received.isEmpty());
+
+        coalescer.flush();
+
+        Assert.assertEquals(received.size(), 1);
+        Assert.assertEquals(received.get(0).keySet(), Collections.singleton(Unit.Property.ACTIVE_STATE));
+
+        coalescer.submit(changed(PATH_CRONIE, Unit.Property.ACTIVE_STATE, "failed"));
+        coalescer.clear();
+        coalescer.flush();
+
+        Assert.assertEquals(received.size(), 1);
+    }
+
+    private static PropertiesChanged changed(final String path, final String propertyName, final String value) throws DBusException {
+        return new PropertiesChanged(path, Unit.SERVICE_NAME, Collections.singletonMap(propertyName, new Variant<>(value)), Collections.emptyList());
+    }
+
+}
@@ -12,6 +12,9 @@
 package de.thjom.java.systemd;
 
 import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.freedesktop.dbus.exceptions.DBusException;
 import org.testng.Assert;
@@ -27,6 +30,32 @@ public class SystemdTest {
         Assert.assertEquals(Systemd.escapePath(new StringBuffer("systemd-logind.service")), "systemd_2dlogind_2eservice");
         Assert.assertEquals(Systemd.escapePath(new StringBuilder("user@1000.service")), "user_401000_2eservice");
         Assert.assertEquals(Systemd.escapePath(null), "");
+        Assert.assertEquals(Systemd.escapePath("getty@tty1.service"), "getty_40tty1_2eservice");
+        Assert.assertEquals(Systemd.escapePath("a\tb"), "a_09b");
+        Assert.assertEquals(Systemd.escapePath("\u00e4\u20ac"), "_c3_a4_e2_82_ac");
+        Assert.assertEquals(Systemd.escapePath("my_app.service"), "my_5fapp_2eservice");
+        Assert.assertEquals(Systemd.escapePath("0day.service"), "_30day_2eservice");
+        Assert.assertEquals(Systemd.escapePath(""), "_");
+        Assert.assertSame(Systemd.escapePath("cronie.service"), Systemd.escapePath("cronie.service"));
+    }
+
+    @Test(description="Tests object path unescape function.")
+    public void testPathUnescaping() {
+        Assert.assertEquals(Systemd.unescapePath("cronie_2eservice"), "cronie.service");
+        Assert.assertEquals(Systemd.unescapePath("systemd_2dlogind_2eservice"), "systemd-logind.service");
+        Assert.assertEquals(Systemd.unescapePath("user_401000_2eservice"), "user@1000.service");
+        Assert.assertEquals(Systemd.unescapePath("foo_c3_a4_2eservice"), "foo\u00e4.service");
+        Assert.assertEquals(Systemd.unescapePath("plain_name"), "plain_name");
+        Assert.assertEquals(Systemd.unescapePath("_"), "");
+        Assert.assertEquals(Systemd.unescapePath(null), "");
+
+        // Round trip of control, reserved and non-ASCII characters
+        for (String name : new String[] { "a\tb\n.service", "x_2e.service", "\u00e4\u20ac\ud83d\ude00.service", "1\u0000_", "" }) {
+            Assert.assertEquals(Systemd.unescapePath(Systemd.escapePath(name)), name);
+        }
+
+        Assert.assertEquals(Unit.extractUnitName(Unit.toObjectPath("dbus.socket")), "dbus.socket");
+        Assert.assertEquals(Unit.extractUnitName("/org/freedesktop/DBus"), "");
     }
 
     @Test(description="Tests micro-timestamp conversion to java.util.Date object.")
@@ -45,6 +74,33 @@ public class SystemdTest {
         Assert.assertEquals(str, "5a83d9fde467400a869fce0d43717b83");
     }
 
+    @Test(description="Tests execution of blocking calls by the call executor.")
+    public void testCallExecutor() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Systemd.newCallExecutor();
+
+        try {
+            Future<Boolean> daemon = executor.submit(() -> Thread.currentThread().isDaemon());
+
+            Assert.assertTrue(daemon.get());
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        Thread thread = SignalThreads.newThread(() -> { /* Nothing to do */ }, "test");
+
+        Assert.assertTrue(thread.isDaemon());
+        Assert.assertEquals(thread.getName(), "test");
+    }
+
+    @Test(description="Tests derivation of distinct bus addresses for pooled connections.")
+    public void testStripeAddress() {
+        String address = "unix:path=/var/run/dbus/system_bus_socket";
+
+        Assert.assertEquals(ConnectionPool.stripeAddress(address, 0), address + ",stripe=0");
+        Assert.assertNotEquals(ConnectionPool.stripeAddress(address, 1), ConnectionPool.stripeAddress(address, 2));
+    }
+
     @Test(groups="requireSystemd", description="Tests D-Bus connectivity to system instance.")
     public void testSystemInstanceConnectivity() {
         // Connects automatically to bus
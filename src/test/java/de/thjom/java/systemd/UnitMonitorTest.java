@@ -14,7 +14,9 @@ package de.thjom.java.systemd;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.awaitility.Awaitility;
 import org.freedesktop.DBus;
@@ -156,4 +158,51 @@ public class UnitMonitorTest extends AbstractTestCase {
         }
     }
 
+    @Test(description="Tests polling without overlapping refreshes and beyond failed refreshes.")
+    public void testPollingResilience() throws DBusException {
+        AtomicInteger refreshes = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        UnitMonitor monitor = new UnitMonitor(systemd.getManager()) {
+
+            @Override
+            public void reset() {
+                // Do nothing (simple mock object)
+            }
+
+            @Override
+            public void refresh() throws DBusException {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+                try {
+                    Thread.sleep(20L);
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finally {
+                    inFlight.decrementAndGet();
+                }
+
+                if (refreshes.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Failed refresh (test case)");
+                }
+            }
+
+        };
+
+        monitor.setPollingJitter(0.5);
+        monitor.startPolling(0L, 5L);
+
+        Assert.assertTrue(monitor.isPolling());
+
+        Awaitility.await().atMost(5L, TimeUnit.SECONDS).until(() -> refreshes.get() >= 3);
+
+        monitor.stopPolling();
+
+        Assert.assertFalse(monitor.isPolling());
+        Assert.assertEquals(maxInFlight.get(), 1);
+    }
+
 }
@@ -11,6 +11,13 @@
 
 package de.thjom.java.systemd;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.freedesktop.DBus.Properties.PropertiesChanged;
+import org.freedesktop.dbus.DBusSigHandler;
 import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.exceptions.DBusException;
 import org.mockito.Mock;
@@ -207,6 +214,108 @@ public class UnitNameMonitorTest extends AbstractTestCase {
         }
     }
 
+    @Test(description="Tests subscription of property changes per monitored unit.")
+    public void testScopedSubscriptions() throws DBusException {
+        UnitNameMonitor monitor = new UnitNameMonitor(systemd.getManager());
+        monitor.addUnits("avahi-daemon.service", "cronie.service");
+
+        UnitStateListener listener = (unit, properties) -> { /* Nothing to do */ };
+        monitor.addListener(listener);
+
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(siface0), Mockito.any());
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(siface1), Mockito.any());
+        Mockito.verify(dbus, Mockito.never()).addSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.any(DBusSigHandler.class));
+
+        monitor.addUnits("polkit.service");
+        monitor.removeUnits("cronie.service");
+
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(siface2), Mockito.any());
+        Mockito.verify(dbus).removeSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(siface1), Mockito.any());
+
+        monitor.removeListener(listener);
+
+        Mockito.verify(dbus).removeSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(siface0), Mockito.any());
+        Mockito.verify(dbus).removeSigHandler(Mockito.eq(PropertiesChanged.class), Mockito.eq(siface2), Mockito.any());
+    }
+
+    @Test(description="Tests notification of differences between monitor states.")
+    public void testMonitorChanges() throws DBusException {
+        UnitNameMonitor monitor = new UnitNameMonitor(systemd.getManager());
+        List<String> changes = new ArrayList<>();
+
+        monitor.addListener(new UnitMonitorListener() {
+
+            @Override
+            public void monitorRefreshed(final Collection<Unit> monitoredUnits) {
+                // Do nothing (test case)
+            }
+
+            @Override
+            public void monitorChanged(final Collection<Unit> added, final Collection<Unit> removed, final Collection<Unit> replaced) {
+                changes.add(String.format("%d/%d/%d", added.size(), removed.size(), replaced.size()));
+            }
+
+        });
+
+        monitor.addUnits("avahi-daemon.service", "cronie.service");
+
+        Collection<Unit> snapshot = monitor.getMonitoredUnits();
+        Unit avahi = monitor.getMonitoredUnit("avahi-daemon.service").get();
+
+        monitor.refresh();
+
+        Assert.assertSame(monitor.getMonitoredUnit("avahi-daemon.service").get(), avahi);
+
+        monitor.removeUnits("cronie.service");
+        monitor.addUnits(systemd.getManager().getService("avahi-daemon"));
+
+        Assert.assertEquals(snapshot.size(), 2);
+        Assert.assertEquals(monitor.getMonitoredUnits().size(), 1);
+        Assert.assertEquals(changes, Arrays.asList("2/0/0", "0/1/0", "0/0/1"));
+    }
+
+    @Test(description="Tests concurrent resolution of units with a timeout per unit.")
+    public void testConcurrentRefresh() throws DBusException {
+        String objectPath = Unit.OBJECT_PATH + Systemd.escapePath("hung.service");
+
+        ServiceInterface siface = Mockito.mock(ServiceInterface.class);
+        PropertyInterface piface = Mockito.mock(PropertyInterface.class);
+
+        Mockito.when(siface.getObjectPath()).thenReturn(objectPath);
+        Mockito.when(dbus.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.eq(objectPath), Mockito.eq(ServiceInterface.class))).thenReturn(siface);
+        Mockito.when(dbus.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.eq(objectPath), Mockito.eq(PropertyInterface.class))).thenReturn(piface);
+        Mockito.when(piface.getProperty(Mockito.eq(Unit.SERVICE_NAME), Mockito.eq(Unit.Property.ID))).then(invocation -> {
+            Thread.sleep(10000L);
+
+            return new Variant<>("hung.service");
+        });
+
+        UnitNameMonitor monitor = new UnitNameMonitor(systemd.getManager());
+        monitor.setRefreshConcurrency(2);
+        monitor.setRefreshTimeout(200L);
+
+        long start = System.currentTimeMillis();
+
+        monitor.addUnits("avahi-daemon.service", "hung.service", "cronie.service", "polkit.service");
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+        Assert.assertEquals(monitor.getMonitoredUnits().size(), 3);
+        Assert.assertFalse(monitor.monitorsUnit("hung.service"));
+
+        Unit avahi = monitor.getMonitoredUnit("avahi-daemon.service").get();
+
+        monitor.refresh();
+
+        Assert.assertEquals(monitor.getMonitoredUnits().size(), 3);
+        Assert.assertSame(monitor.getMonitoredUnit("avahi-daemon.service").get(), avahi);
+
+        // Releases the resolution threads, which are created again on demand
+        monitor.stopPolling();
+        monitor.refresh();
+
+        Assert.assertEquals(monitor.getMonitoredUnits().size(), 3);
+    }
+
     @Test(description="Tests query methods on a configured monitor.")
     public void testMonitorInterrogation() {
         UnitNameMonitor monitor = null;
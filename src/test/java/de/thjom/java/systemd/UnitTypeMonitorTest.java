@@ -12,11 +12,18 @@
 package de.thjom.java.systemd;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.awaitility.Awaitility;
+import org.freedesktop.dbus.DBusSigHandler;
+import org.freedesktop.dbus.Path;
 import org.freedesktop.dbus.UInt32;
 import org.freedesktop.dbus.Variant;
 import org.freedesktop.dbus.exceptions.DBusException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
@@ -26,6 +33,8 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import de.thjom.java.systemd.UnitTypeMonitor.MonitoredType;
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitNew;
+import de.thjom.java.systemd.interfaces.ManagerInterface.UnitRemoved;
 import de.thjom.java.systemd.interfaces.MountInterface;
 import de.thjom.java.systemd.interfaces.PropertyInterface;
 import de.thjom.java.systemd.interfaces.ServiceInterface;
@@ -80,6 +89,8 @@ public class UnitTypeMonitorTest extends AbstractTestCase {
 
             });
 
+            Mockito.when(miface.listUnitsByPatterns(Mockito.anyList(), Mockito.anyList())).then(invocation -> Manager.filterUnits(miface.listUnits(), invocation.getArgument(0), invocation.getArgument(1)));
+
             Mockito.when(miface0.getObjectPath()).thenReturn(OBJECT_PATH_MOUNT_BOOT);
             Mockito.when(dbus.getRemoteObject(Mockito.eq(Systemd.SERVICE_NAME), Mockito.eq(OBJECT_PATH_MOUNT_BOOT), Mockito.eq(MountInterface.class))).thenReturn(miface0);
 
@@ -276,6 +287,130 @@ public class UnitTypeMonitorTest extends AbstractTestCase {
         }
     }
 
+    @Test(description="Tests incremental maintenance of monitored units by signals.")
+    public void testIncrementalMode() throws DBusException {
+        UnitTypeMonitor monitor = new UnitTypeMonitor(systemd.getManager());
+        monitor.addMonitoredTypes(MonitoredType.SERVICE);
+
+        AtomicInteger notifications = new AtomicInteger();
+        monitor.addListener(units -> notifications.incrementAndGet());
+
+        monitor.startIncremental(0L);
+
+        Assert.assertTrue(monitor.isIncremental());
+        Assert.assertEquals(monitor.getMonitoredUnits().size(), 2);
+
+        Unit avahi = monitor.getMonitoredUnit("avahi-daemon.service").get();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<UnitNew>> newCaptor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(UnitNew.class), newCaptor.capture());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<UnitRemoved>> removedCaptor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus).addSigHandler(Mockito.eq(UnitRemoved.class), removedCaptor.capture());
+
+        removedCaptor.getValue().handle(new UnitRemoved(Systemd.OBJECT_PATH, "cronie.service", new Path(OBJECT_PATH_SERVICE_CRONIE)));
+
+        Awaitility.await().atMost(5L, TimeUnit.SECONDS).until(() -> !monitor.monitorsUnit("cronie.service"));
+
+        newCaptor.getValue().handle(new UnitNew(Systemd.OBJECT_PATH, "boot.mount", new Path(OBJECT_PATH_MOUNT_BOOT)));
+        newCaptor.getValue().handle(new UnitNew(Systemd.OBJECT_PATH, "cronie.service", new Path(OBJECT_PATH_SERVICE_CRONIE)));
+
+        Awaitility.await().atMost(5L, TimeUnit.SECONDS).until(() -> monitor.monitorsUnit("cronie.service"));
+
+        Assert.assertEquals(monitor.getMonitoredUnits().size(), 2);
+        Assert.assertFalse(monitor.monitorsUnit("boot.mount"));
+        Assert.assertEquals(notifications.get(), 3);
+
+        // Reconciliation keeps adapters of known units
+        monitor.refresh();
+
+        Assert.assertSame(monitor.getMonitoredUnit("avahi-daemon.service").get(), avahi);
+
+        monitor.stopIncremental();
+
+        Assert.assertFalse(monitor.isIncremental());
+        Mockito.verify(dbus).removeSigHandler(UnitNew.class, newCaptor.getValue());
+        Mockito.verify(dbus).removeSigHandler(UnitRemoved.class, removedCaptor.getValue());
+    }
+
+    @Test(description="Tests that unit removal and addition are applied in signal order.")
+    public void testIncrementalOrdering() throws DBusException {
+        UnitTypeMonitor monitor = new UnitTypeMonitor(systemd.getManager());
+        monitor.addMonitoredTypes(MonitoredType.SERVICE);
+        monitor.startIncremental(0L);
+
+        Assert.assertTrue(monitor.monitorsUnit("cronie.service"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<UnitNew>> newCaptor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus, Mockito.atLeastOnce()).addSigHandler(Mockito.eq(UnitNew.class), newCaptor.capture());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<DBusSigHandler<UnitRemoved>> removedCaptor = ArgumentCaptor.forClass(DBusSigHandler.class);
+        Mockito.verify(dbus, Mockito.atLeastOnce()).addSigHandler(Mockito.eq(UnitRemoved.class), removedCaptor.capture());
+
+        // Unit is unloaded and loaded again, signals are handled in reverse order
+        UnitRemoved removed = new UnitRemoved(Systemd.OBJECT_PATH, "cronie.service", new Path(OBJECT_PATH_SERVICE_CRONIE));
+        UnitNew added = new UnitNew(Systemd.OBJECT_PATH, "cronie.service", new Path(OBJECT_PATH_SERVICE_CRONIE));
+        AtomicInteger changes = new AtomicInteger();
+
+        monitor.addListener(new UnitMonitorListener() {
+
+            @Override
+            public void monitorRefreshed(final Collection<Unit> monitoredUnits) {
+                changes.incrementAndGet();
+            }
+
+        });
+
+        newCaptor.getValue().handle(added);
+        removedCaptor.getValue().handle(removed);
+
+        Awaitility.await().atMost(5L, TimeUnit.SECONDS).until(() -> changes.get() == 2);
+
+        Assert.assertTrue(monitor.monitorsUnit("cronie.service"));
+
+        monitor.stopIncremental();
+    }
+
+    @Test(description="Tests that a refresh keeps changes applied while the units were listed.")
+    public void testConcurrentRefresh() throws DBusException {
+        UnitTypeMonitor monitor = new UnitTypeMonitor(systemd.getManager());
+        monitor.addMonitoredTypes(MonitoredType.SERVICE);
+
+        Assert.assertTrue(monitor.monitorsUnit("cronie.service"));
+
+        // Unit is removed by a signal while the refresh lists the units
+        Mockito.doAnswer(invocation -> {
+            monitor.updateMonitoredUnits(m -> m.remove(Systemd.escapePath("cronie.service")));
+
+            return Manager.filterUnits(miface.listUnits(), invocation.getArgument(0), invocation.getArgument(1));
+        }).when(miface).listUnitsByPatterns(Mockito.anyList(), Mockito.anyList());
+
+        try {
+            monitor.refresh();
+        }
+        finally {
+            Mockito.doAnswer(invocation -> Manager.filterUnits(miface.listUnits(), invocation.getArgument(0), invocation.getArgument(1))).when(miface).listUnitsByPatterns(Mockito.anyList(), Mockito.anyList());
+        }
+
+        Assert.assertFalse(monitor.monitorsUnit("cronie.service"));
+        Assert.assertTrue(monitor.monitorsUnit("avahi-daemon.service"));
+
+        // Deprecated view writes through
+        Unit unit = monitor.monitoredUnits.remove(Systemd.escapePath("avahi-daemon.service"));
+
+        Assert.assertNotNull(unit);
+        Assert.assertFalse(monitor.monitorsUnit("avahi-daemon.service"));
+
+        monitor.refresh();
+
+        Assert.assertTrue(monitor.monitorsUnit("cronie.service"));
+        Assert.assertTrue(monitor.monitorsUnit("avahi-daemon.service"));
+    }
+
     @Test(description="Tests query methods on a configured monitor.")
     public void testMonitorInterrogation() {
         UnitTypeMonitor monitor = null;